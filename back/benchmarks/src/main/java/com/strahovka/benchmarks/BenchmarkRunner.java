@@ -0,0 +1,41 @@
+package com.strahovka.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler (allocation rate per operation) and writes the results
+ * as JSON to {@code target/jmh-result.json}. Standard JMH command line options are accepted and
+ * take precedence, e.g. {@code java -jar benchmarks.jar Refund -rff refund.json}.
+ * <p>
+ * Build: {@code mvn -f back/pom.xml install -DskipTests}, then {@code mvn -f back/benchmarks/pom.xml package}.
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+    /** Need a running database, so they only run when selected explicitly. */
+    private static final String[] DATABASE_BENCHMARKS = {"PackagePersistenceBenchmark", "LoginTokenWriteBenchmark", "JwtFilterBenchmark",
+            "LoginStormBenchmark", "GuestAccountBenchmark"};
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(commandLine.getResult().orElse(DEFAULT_RESULT_FILE));
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(BenchmarkRunner.class.getPackageName() + "\\..*Benchmark");
+            for (String benchmark : DATABASE_BENCHMARKS) {
+                builder.exclude(benchmark);
+            }
+        }
+        new Runner(builder.build()).run();
+    }
+}
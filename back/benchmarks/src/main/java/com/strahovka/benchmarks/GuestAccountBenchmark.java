@@ -0,0 +1,244 @@
+package com.strahovka.benchmarks;
+
+import com.strahovka.dto.LoginResponse;
+import com.strahovka.entity.User;
+import com.strahovka.enums.Role;
+import com.strahovka.enums.UserLevel;
+import com.strahovka.repository.UserRepository;
+import com.strahovka.service.AccountClaimService;
+import com.strahovka.service.AuthService;
+import com.strahovka.service.ClaimLinkMailer;
+import com.strahovka.service.JwtService;
+import com.strahovka.service.PasswordHashingService;
+import com.strahovka.service.RefreshTokenStore;
+import com.strahovka.service.TokenVersionService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency of the account step of the {@code /api/insurance/.../unauthorized} endpoints,
+ * {@code AuthService.registerAndLogin} for a new email, with 16 concurrent applicants on a pool of 10 connections
+ * (the Hikari default). It is the only part of those endpoints that changed; the application itself is saved
+ * as before. {@code account=guest} is the call as it is: a passwordless guest is inserted, the session issued, and
+ * the claim link mailed after commit by {@link ClaimLinkMailer} on its own thread, through a mail sender that
+ * accepts everything. {@code account=bcryptEmail} is the former flow, which hashed the email as the password
+ * with BCrypt (strength 10) inside the transaction. Each runs in one transaction, as the {@code @Transactional}
+ * proxy of the application would. AuthService, {@link RefreshTokenStore}, {@link AccountClaimService} and the
+ * mailer are the application beans.
+ * <p>
+ * Needs a local Postgres and is not part of the default run:
+ * {@code java -jar benchmarks.jar GuestAccount -p url=jdbc:postgresql://localhost:5432/strahovka}.
+ * Works in its own {@code jmh_guest} schema, which is dropped afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(16)
+@Fork(1)
+public class GuestAccountBenchmark {
+
+    private static final String SECRET = "benchmark_secret_key_for_jwt_signing_that_is_at_least_64_bytes_long_0123456789";
+    private static final String USER_COLUMNS = """
+            SELECT id, email, password, first_name, last_name, middle_name, phone, role, level, policy_count, token_version
+            FROM users
+            """;
+    private static final String INSERT_USER = """
+            INSERT INTO users (id, email, password, first_name, last_name, role, level, policy_count, token_version)
+            VALUES (nextval('users_id_seq'), ?, ?, ?, ?, ?, ?, 0, 0)
+            RETURNING id
+            """;
+
+    @Param("jdbc:postgresql://localhost:5432/strahovka")
+    public String url;
+
+    @Param("postgres")
+    public String user;
+
+    @Param("postgres")
+    public String password;
+
+    @Param({"guest", "bcryptEmail"})
+    public String account;
+
+    private final AtomicLong nextEmail = new AtomicLong();
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private BCryptPasswordEncoder passwordEncoder;
+    private AnnotationConfigApplicationContext context;
+    private AuthService authService;
+    private JwtService jwtService;
+    private RefreshTokenStore refreshTokenStore;
+    private UserRepository userRepository;
+
+    @Setup
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url + (url.contains("?") ? "&" : "?") + "currentSchema=jmh_guest");
+        dataSource.setUsername(user);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(10);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        PlatformTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        passwordEncoder = new BCryptPasswordEncoder(10);
+
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS jmh_guest CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA jmh_guest");
+        jdbcTemplate.execute("CREATE SEQUENCE jmh_guest.users_id_seq");
+        jdbcTemplate.execute("CREATE TABLE jmh_guest.users (id BIGINT PRIMARY KEY, email VARCHAR(255) NOT NULL UNIQUE,"
+                + " password VARCHAR(255), first_name VARCHAR(255), last_name VARCHAR(255), middle_name VARCHAR(255),"
+                + " phone VARCHAR(255), role VARCHAR(50), level VARCHAR(50), policy_count INTEGER,"
+                + " token_version INTEGER NOT NULL DEFAULT 0)");
+        jdbcTemplate.execute("CREATE TABLE jmh_guest.refresh_tokens (id BIGSERIAL PRIMARY KEY, token_hash CHAR(64) NOT NULL,"
+                + " family_id UUID NOT NULL, user_id BIGINT NOT NULL, issued_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,"
+                + " expires_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX ON jmh_guest.refresh_tokens (token_hash)");
+        jdbcTemplate.execute("CREATE TABLE jmh_guest.account_claim_tokens (token_hash CHAR(64) PRIMARY KEY,"
+                + " user_id BIGINT NOT NULL, expires_at TIMESTAMP NOT NULL,"
+                + " created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        jdbcTemplate.execute("CREATE INDEX ON jmh_guest.account_claim_tokens (user_id, created_at)");
+
+        context = new AnnotationConfigApplicationContext();
+        context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "jwt.secret", SECRET,
+                "jwt.expiration", "86400000",
+                "jwt.refresh-token.expiration", "604800000",
+                "account-claim.mail-queue-capacity", "100000")));
+        context.registerBean(TransactionalEventListenerFactory.class);
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.registerBean(JdbcTemplate.class, () -> jdbcTemplate);
+        context.registerBean(PlatformTransactionManager.class, () -> transactionManager);
+        context.registerBean(TransactionTemplate.class, () -> transactionTemplate);
+        context.registerBean(BCryptPasswordEncoder.class, () -> passwordEncoder);
+        context.registerBean(UserRepository.class, this::jdbcUserRepository);
+        context.registerBean(JavaMailSender.class, GuestAccountBenchmark::acceptingMailSender);
+        context.registerBean(PasswordHashingService.class);
+        context.registerBean(JwtService.class);
+        context.registerBean(TokenVersionService.class);
+        context.registerBean(RefreshTokenStore.class);
+        context.registerBean(AccountClaimService.class);
+        context.registerBean(ClaimLinkMailer.class);
+        context.registerBean(AuthService.class);
+        context.refresh();
+        authService = context.getBean(AuthService.class);
+        jwtService = context.getBean(JwtService.class);
+        refreshTokenStore = context.getBean(RefreshTokenStore.class);
+        userRepository = context.getBean(UserRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS jmh_guest CASCADE");
+        dataSource.close();
+    }
+
+    @Benchmark
+    public LoginResponse unauthorizedApplicant() {
+        String email = "guest" + nextEmail.incrementAndGet() + "@example.com";
+        return transactionTemplate.execute(status -> "bcryptEmail".equals(account)
+                ? bcryptEmailRegisterAndLogin(email)
+                : authService.registerAndLogin(email));
+    }
+
+    /** The former registerAndLogin: BCrypt of the email on the request thread, with the connection already held. */
+    private LoginResponse bcryptEmailRegisterAndLogin(String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseGet(() -> userRepository.save(User.builder()
+                        .email(email)
+                        .password(passwordEncoder.encode(email))
+                        .firstName(email.split("@")[0])
+                        .lastName("")
+                        .role(Role.USER)
+                        .build()));
+        return LoginResponse.builder()
+                .accessToken(jwtService.generateToken(user))
+                .refreshToken(refreshTokenStore.issue(user))
+                .id(user.getId())
+                .email(user.getEmail())
+                .build();
+    }
+
+    /** Stands in for an SMTP server that accepts every message at once. */
+    private static JavaMailSender acceptingMailSender() {
+        return (JavaMailSender) Proxy.newProxyInstance(JavaMailSender.class.getClassLoader(), new Class<?>[]{JavaMailSender.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "send" -> null;
+                    case "toString" -> "acceptingMailSender";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException("JavaMailSender." + method.getName());
+                });
+    }
+
+    /** The guest and legacy flows only look users up by email and id, and the legacy one inserts with save. */
+    private UserRepository jdbcUserRepository() {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByEmail" -> findUser("WHERE email = ?", args[0]);
+                    case "findById" -> findUser("WHERE id = ?", args[0]);
+                    case "save" -> {
+                        User saved = (User) args[0];
+                        saved.setId(jdbcTemplate.queryForObject(INSERT_USER, Long.class, saved.getEmail(), saved.getPassword(),
+                                saved.getFirstName(), saved.getLastName(), saved.getRole().name(), saved.getLevel().name()));
+                        yield saved;
+                    }
+                    case "toString" -> "jdbcUserRepository";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException("UserRepository." + method.getName());
+                });
+    }
+
+    private Optional<User> findUser(String where, Object key) {
+        List<User> users = jdbcTemplate.query(USER_COLUMNS + where, (rs, rowNum) -> User.builder()
+                .id(rs.getLong("id"))
+                .email(rs.getString("email"))
+                .password(rs.getString("password"))
+                .firstName(rs.getString("first_name"))
+                .lastName(rs.getString("last_name"))
+                .middleName(rs.getString("middle_name"))
+                .phone(rs.getString("phone"))
+                .role(Role.valueOf(rs.getString("role")))
+                .level(UserLevel.valueOf(rs.getString("level")))
+                .policyCount(rs.getInt("policy_count"))
+                .tokenVersion(rs.getInt("token_version"))
+                .build(), key);
+        return users.stream().findFirst();
+    }
+}
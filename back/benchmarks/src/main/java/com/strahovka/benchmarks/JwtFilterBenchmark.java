@@ -0,0 +1,183 @@
+package com.strahovka.benchmarks;
+
+import com.strahovka.entity.User;
+import com.strahovka.enums.Role;
+import com.strahovka.enums.UserLevel;
+import com.strahovka.repository.UserRepository;
+import com.strahovka.security.JwtAuthenticationFilter;
+import com.strahovka.service.JwtService;
+import com.strahovka.service.TokenVersionService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second through {@link JwtAuthenticationFilter} with {@code jwt.stateless} on and off, 16 request
+ * threads sharing a pool of 10 connections (the Hikari default). Off, every request loads the user row by email,
+ * as the {@code UserDetailsService} of {@code ApplicationConfig} does (here with plain JDBC, so the legacy path
+ * is measured without Hibernate overhead and the gain is a lower bound). On, the request only checks the
+ * cached token version. Filter, {@link JwtService} and {@link TokenVersionService} are the application beans.
+ * <p>
+ * Needs a local Postgres and is not part of the default run:
+ * {@code java -jar benchmarks.jar JwtFilter -p url=jdbc:postgresql://localhost:5432/strahovka}.
+ * Works in its own {@code jmh_jwt} schema, which is dropped afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    /** Below the default jwt.claims-cache.max-size, so every token stays verified once. */
+    private static final int USERS = 5_000;
+    private static final String SECRET = "benchmark_secret_key_for_jwt_signing_that_is_at_least_64_bytes_long_0123456789";
+    private static final String SELECT_USER = """
+            SELECT id, email, password, first_name, last_name, middle_name, phone, role, level, policy_count, token_version
+            FROM users WHERE email = ?
+            """;
+
+    @Param("jdbc:postgresql://localhost:5432/strahovka")
+    public String url;
+
+    @Param("postgres")
+    public String user;
+
+    @Param("postgres")
+    public String password;
+
+    @Param({"true", "false"})
+    public boolean stateless;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private AnnotationConfigApplicationContext context;
+    private JwtAuthenticationFilter filter;
+    private final String[] tokens = new String[USERS];
+
+    @Setup
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url + (url.contains("?") ? "&" : "?") + "currentSchema=jmh_jwt");
+        dataSource.setUsername(user);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(10);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS jmh_jwt CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA jmh_jwt");
+        jdbcTemplate.execute("CREATE TABLE jmh_jwt.users (id BIGINT PRIMARY KEY, email VARCHAR(255) NOT NULL UNIQUE,"
+                + " password VARCHAR(255), first_name VARCHAR(255), last_name VARCHAR(255), middle_name VARCHAR(255),"
+                + " phone VARCHAR(255), role VARCHAR(50), level VARCHAR(50), policy_count INTEGER,"
+                + " token_version INTEGER NOT NULL DEFAULT 0)");
+        jdbcTemplate.execute("INSERT INTO jmh_jwt.users (id, email, password, first_name, last_name, middle_name, phone, role, level, policy_count)"
+                + " SELECT g, 'user' || g || '@example.com', repeat('x', 60), 'Иван', 'Иванов', 'Иванович', '+79990000000',"
+                + " 'USER', 'WOODEN', 0 FROM generate_series(1, " + USERS + ") g");
+        jdbcTemplate.execute("VACUUM ANALYZE jmh_jwt.users");
+
+        context = new AnnotationConfigApplicationContext();
+        context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "jwt.secret", SECRET,
+                "jwt.expiration", "86400000",
+                "jwt.refresh-token.expiration", "604800000",
+                "jwt.stateless", String.valueOf(stateless))));
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.registerBean(JdbcTemplate.class, () -> jdbcTemplate);
+        context.registerBean(UserRepository.class, JwtFilterBenchmark::unusedUserRepository);
+        context.registerBean(UserDetailsService.class, () -> this::loadUser);
+        context.registerBean(JwtService.class);
+        context.registerBean(TokenVersionService.class);
+        context.registerBean(JwtAuthenticationFilter.class);
+        context.refresh();
+        filter = context.getBean(JwtAuthenticationFilter.class);
+
+        JwtService jwtService = context.getBean(JwtService.class);
+        for (int i = 0; i < USERS; i++) {
+            tokens[i] = jwtService.generateToken(User.builder()
+                    .id((long) i + 1)
+                    .email("user" + (i + 1) + "@example.com")
+                    .role(Role.USER)
+                    .tokenVersion(0)
+                    .build());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS jmh_jwt CASCADE");
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/insurance/policies");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + tokens[ThreadLocalRandom.current().nextInt(USERS)]);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new IllegalStateException("Request was not authenticated");
+        }
+        return authentication;
+    }
+
+    private UserDetails loadUser(String email) {
+        return jdbcTemplate.queryForObject(SELECT_USER, (rs, rowNum) -> User.builder()
+                .id(rs.getLong("id"))
+                .email(rs.getString("email"))
+                .password(rs.getString("password"))
+                .firstName(rs.getString("first_name"))
+                .lastName(rs.getString("last_name"))
+                .middleName(rs.getString("middle_name"))
+                .phone(rs.getString("phone"))
+                .role(Role.valueOf(rs.getString("role")))
+                .level(UserLevel.valueOf(rs.getString("level")))
+                .policyCount(rs.getInt("policy_count"))
+                .tokenVersion(rs.getInt("token_version"))
+                .build(), email);
+    }
+
+    /** JwtService takes the repository but the filter path never calls it. */
+    private static UserRepository unusedUserRepository() {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "toString" -> "unusedUserRepository";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException("UserRepository." + method.getName());
+                });
+    }
+}
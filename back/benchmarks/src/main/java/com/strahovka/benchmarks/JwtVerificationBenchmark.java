@@ -0,0 +1,95 @@
+package com.strahovka.benchmarks;
+
+import com.strahovka.service.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bearer token verification per request: the former path (a new parser and a full HMAC check for the
+ * subject in the filter, then for subject and expiry in {@code isTokenValid}) against one parse with a
+ * shared parser, and against a hit in {@link VerifiedTokenCache} as {@code JwtService.parseClaims} serves
+ * repeated tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final int MASK = SIZE - 1;
+
+    private final String[] tokens = new String[SIZE];
+    private SecretKey key;
+    private JwtParser parser;
+    private VerifiedTokenCache cache;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor("benchmark_secret_key_for_jwt_signing_that_is_at_least_64_bytes_long_0123456789"
+                .getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+        cache = new VerifiedTokenCache(2 * SIZE, Duration.ofMinutes(10));
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < SIZE; i++) {
+            tokens[i] = Jwts.builder()
+                    .setClaims(Map.of("uid", (long) i + 1, "role", "USER", "ver", 0))
+                    .setSubject("user" + i + "@example.com")
+                    .setIssuedAt(new Date(now))
+                    .setExpiration(new Date(now + TimeUnit.DAYS.toMillis(1)))
+                    .signWith(key)
+                    .compact();
+            cache.get(tokens[i], this::parse);
+        }
+    }
+
+    private Claims parse(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private Claims parseWithNewParser(String token) {
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public boolean threeParsesBaseline() {
+        String token = tokens[next++ & MASK];
+        String username = parseWithNewParser(token).getSubject();
+        return parseWithNewParser(token).getSubject().equals(username)
+                && !parseWithNewParser(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean parseOnce() {
+        Claims claims = parse(tokens[next++ & MASK]);
+        return claims.getSubject() != null && !claims.getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean cachedClaims() {
+        Claims claims = cache.get(tokens[next++ & MASK], this::parse);
+        return claims.getSubject() != null && !claims.getExpiration().before(new Date());
+    }
+}
@@ -0,0 +1,223 @@
+package com.strahovka.benchmarks;
+
+import com.strahovka.dto.LoginRequest;
+import com.strahovka.dto.LoginResponse;
+import com.strahovka.entity.User;
+import com.strahovka.enums.Role;
+import com.strahovka.enums.UserLevel;
+import com.strahovka.repository.UserRepository;
+import com.strahovka.service.AccountClaimService;
+import com.strahovka.service.AuthService;
+import com.strahovka.service.JwtService;
+import com.strahovka.service.PasswordHashingService;
+import com.strahovka.service.RefreshTokenStore;
+import com.strahovka.service.TokenVersionService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login storm against a pool of 10 connections (the Hikari default): latency of a one-row read, standing in for
+ * any non-auth endpoint, alone ({@code quiet}) and next to 48 threads logging in without pause ({@code storm}).
+ * {@code login=split} is {@link AuthService#login} as it is, which verifies the password with no connection
+ * held; {@code login=transactional} runs the same call in one transaction, as the former {@code @Transactional}
+ * login did, so every login waiting on BCrypt holds a connection. The storm should leave the read latency of
+ * {@code split} at the {@code quiet} level. AuthService, {@link PasswordHashingService} with its default pool,
+ * {@link RefreshTokenStore} and {@link JwtService} are the application beans.
+ * <p>
+ * Needs a local Postgres and is not part of the default run:
+ * {@code java -jar benchmarks.jar LoginStorm -p url=jdbc:postgresql://localhost:5432/strahovka}.
+ * Works in its own {@code jmh_storm} schema, which is dropped afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class LoginStormBenchmark {
+
+    private static final int USERS = 1_000;
+    /** Stays within threads + queue-capacity of the hashing pool, so logins queue rather than get a 429. */
+    private static final int LOGIN_THREADS = 48;
+    private static final int READ_THREADS = 4;
+    private static final String PASSWORD = "benchmark-password";
+    private static final String SECRET = "benchmark_secret_key_for_jwt_signing_that_is_at_least_64_bytes_long_0123456789";
+    private static final String SELECT_USER = """
+            SELECT id, email, password, first_name, last_name, middle_name, phone, role, level, policy_count, token_version
+            FROM users WHERE id = ?
+            """;
+
+    @Param("jdbc:postgresql://localhost:5432/strahovka")
+    public String url;
+
+    @Param("postgres")
+    public String user;
+
+    @Param("postgres")
+    public String password;
+
+    @Param({"split", "transactional"})
+    public String login;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private AnnotationConfigApplicationContext context;
+    private AuthService authService;
+
+    @Setup
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url + (url.contains("?") ? "&" : "?") + "currentSchema=jmh_storm");
+        dataSource.setUsername(user);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(10);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        PlatformTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(10);
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS jmh_storm CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA jmh_storm");
+        jdbcTemplate.execute("CREATE TABLE jmh_storm.users (id BIGINT PRIMARY KEY, email VARCHAR(255) NOT NULL UNIQUE,"
+                + " password VARCHAR(255), first_name VARCHAR(255), last_name VARCHAR(255), middle_name VARCHAR(255),"
+                + " phone VARCHAR(255), role VARCHAR(50), level VARCHAR(50), policy_count INTEGER,"
+                + " token_version INTEGER NOT NULL DEFAULT 0)");
+        jdbcTemplate.update("INSERT INTO jmh_storm.users (id, email, password, first_name, last_name, middle_name, phone, role, level, policy_count)"
+                + " SELECT g, 'user' || g || '@example.com', ?, 'Иван', 'Иванов', 'Иванович', '+79990000000',"
+                + " 'USER', 'WOODEN', 0 FROM generate_series(1, " + USERS + ") g", passwordEncoder.encode(PASSWORD));
+        jdbcTemplate.execute("CREATE TABLE jmh_storm.refresh_tokens (id BIGSERIAL PRIMARY KEY, token_hash CHAR(64) NOT NULL,"
+                + " family_id UUID NOT NULL, user_id BIGINT NOT NULL, issued_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,"
+                + " expires_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX ON jmh_storm.refresh_tokens (token_hash)");
+        jdbcTemplate.execute("VACUUM ANALYZE jmh_storm.users");
+
+        context = new AnnotationConfigApplicationContext();
+        context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "jwt.secret", SECRET,
+                "jwt.expiration", "86400000",
+                "jwt.refresh-token.expiration", "604800000")));
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.registerBean(JdbcTemplate.class, () -> jdbcTemplate);
+        context.registerBean(PlatformTransactionManager.class, () -> transactionManager);
+        context.registerBean(TransactionTemplate.class, () -> transactionTemplate);
+        context.registerBean(BCryptPasswordEncoder.class, () -> passwordEncoder);
+        context.registerBean(UserRepository.class, this::jdbcUserRepository);
+        context.registerBean(PasswordHashingService.class);
+        context.registerBean(JwtService.class);
+        context.registerBean(TokenVersionService.class);
+        context.registerBean(RefreshTokenStore.class);
+        context.registerBean(AccountClaimService.class);
+        context.registerBean(AuthService.class);
+        context.refresh();
+        authService = context.getBean(AuthService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS jmh_storm CASCADE");
+        dataSource.close();
+    }
+
+    @Benchmark
+    @Group("quiet")
+    @GroupThreads(READ_THREADS)
+    public Integer quietRead() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(READ_THREADS)
+    public Integer stormRead() {
+        return read();
+    }
+
+    /** Null when the hashing pool shed the login with a 429. */
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(LOGIN_THREADS)
+    public LoginResponse stormLogin() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail("user" + (1 + ThreadLocalRandom.current().nextInt(USERS)) + "@example.com");
+        request.setPassword(PASSWORD);
+        try {
+            return "transactional".equals(login)
+                    ? transactionTemplate.execute(status -> authService.login(request))
+                    : authService.login(request);
+        } catch (PasswordHashingService.BusyException e) {
+            return null;
+        }
+    }
+
+    private Integer read() {
+        return jdbcTemplate.queryForObject("SELECT policy_count FROM users WHERE id = ?", Integer.class,
+                1 + ThreadLocalRandom.current().nextInt(USERS));
+    }
+
+    /** AuthService.login only loads the user by id, and saves it after a rehash. */
+    private UserRepository jdbcUserRepository() {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> findUser((Long) args[0]);
+                    case "save" -> {
+                        User saved = (User) args[0];
+                        jdbcTemplate.update("UPDATE users SET password = ? WHERE id = ?", saved.getPassword(), saved.getId());
+                        yield saved;
+                    }
+                    case "toString" -> "jdbcUserRepository";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException("UserRepository." + method.getName());
+                });
+    }
+
+    private Optional<User> findUser(long id) {
+        List<User> users = jdbcTemplate.query(SELECT_USER, (rs, rowNum) -> User.builder()
+                .id(rs.getLong("id"))
+                .email(rs.getString("email"))
+                .password(rs.getString("password"))
+                .firstName(rs.getString("first_name"))
+                .lastName(rs.getString("last_name"))
+                .middleName(rs.getString("middle_name"))
+                .phone(rs.getString("phone"))
+                .role(Role.valueOf(rs.getString("role")))
+                .level(UserLevel.valueOf(rs.getString("level")))
+                .policyCount(rs.getInt("policy_count"))
+                .tokenVersion(rs.getInt("token_version"))
+                .build(), id);
+        return users.stream().findFirst();
+    }
+}
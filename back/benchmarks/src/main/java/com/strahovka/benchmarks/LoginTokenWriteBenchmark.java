@@ -0,0 +1,146 @@
+package com.strahovka.benchmarks;
+
+import com.strahovka.util.TokenHashes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database work of one login: the user lookup by email, then either the former rewrite of
+ * {@code access_token} and {@code refresh_token} in the wide {@code users} row, or the append of one hashed
+ * row to {@code refresh_tokens} as {@code RefreshTokenStore.issue} does it. Each login is one commit.
+ * <p>
+ * Needs a local Postgres and is not part of the default run:
+ * {@code java -jar benchmarks.jar LoginTokenWrite -p url=jdbc:postgresql://localhost:5432/strahovka}.
+ * Works in its own {@code jmh_login} schema, which is dropped afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LoginTokenWriteBenchmark {
+
+    private static final int USERS = 10_000;
+    /** Size of an HS256 JWT with the user claims, as stored in the former token columns. */
+    private static final int TOKEN_LENGTH = 300;
+
+    @Param("jdbc:postgresql://localhost:5432/strahovka")
+    public String url;
+
+    @Param("postgres")
+    public String user;
+
+    @Param("postgres")
+    public String password;
+
+    private Connection connection;
+    private final Random random = new Random(42);
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(url, user, password);
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS jmh_login CASCADE");
+            st.execute("CREATE SCHEMA jmh_login");
+            st.execute("CREATE TABLE jmh_login.users (id BIGINT PRIMARY KEY, email VARCHAR(255) NOT NULL UNIQUE,"
+                    + " password VARCHAR(255), first_name VARCHAR(255), last_name VARCHAR(255), middle_name VARCHAR(255),"
+                    + " phone VARCHAR(255), role VARCHAR(50), level VARCHAR(50), policy_count INTEGER,"
+                    + " token_version INTEGER NOT NULL DEFAULT 0, access_token TEXT, refresh_token TEXT)");
+            st.execute("INSERT INTO jmh_login.users (id, email, password, first_name, last_name, middle_name, phone, role, level, policy_count,"
+                    + " access_token, refresh_token)"
+                    + " SELECT g, 'user' || g || '@example.com', repeat('x', 60), 'Иван', 'Иванов', 'Иванович', '+79990000000',"
+                    + " 'USER', 'WOODEN', 0, repeat('a', " + TOKEN_LENGTH + "), repeat('r', " + TOKEN_LENGTH + ")"
+                    + " FROM generate_series(1, " + USERS + ") g");
+            st.execute("CREATE TABLE jmh_login.refresh_tokens (id BIGSERIAL PRIMARY KEY, token_hash CHAR(64) NOT NULL,"
+                    + " family_id UUID NOT NULL, user_id BIGINT NOT NULL, issued_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,"
+                    + " expires_at TIMESTAMP NOT NULL)");
+            st.execute("CREATE UNIQUE INDEX ON jmh_login.refresh_tokens (token_hash)");
+            st.execute("CREATE INDEX ON jmh_login.refresh_tokens (family_id, id)");
+            st.execute("CREATE INDEX ON jmh_login.refresh_tokens (user_id)");
+            st.execute("CREATE INDEX ON jmh_login.refresh_tokens (expires_at)");
+            st.execute("VACUUM ANALYZE jmh_login.users");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS jmh_login CASCADE");
+        }
+        connection.close();
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("TRUNCATE jmh_login.refresh_tokens");
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    public long rewriteUserRowBaseline() throws SQLException {
+        long userId = findUser();
+        try (PreparedStatement st = connection.prepareStatement("UPDATE jmh_login.users SET access_token = ?, refresh_token = ? WHERE id = ?")) {
+            st.setString(1, token());
+            st.setString(2, token());
+            st.setLong(3, userId);
+            st.executeUpdate();
+        }
+        connection.commit();
+        return userId;
+    }
+
+    @Benchmark
+    public long appendRefreshToken() throws SQLException {
+        long userId = findUser();
+        try (PreparedStatement st = connection.prepareStatement("INSERT INTO jmh_login.refresh_tokens (token_hash, family_id, user_id, expires_at) VALUES (?, ?, ?, ?)")) {
+            st.setString(1, TokenHashes.sha256Hex(token()));
+            st.setObject(2, UUID.randomUUID());
+            st.setLong(3, userId);
+            st.setTimestamp(4, new Timestamp(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(7)));
+            st.executeUpdate();
+        }
+        connection.commit();
+        return userId;
+    }
+
+    private long findUser() throws SQLException {
+        try (PreparedStatement st = connection.prepareStatement("SELECT id, password, role, token_version FROM jmh_login.users WHERE email = ?")) {
+            st.setString(1, "user" + (1 + random.nextInt(USERS)) + "@example.com");
+            try (ResultSet rs = st.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private String token() {
+        return UUID.randomUUID() + "x".repeat(TOKEN_LENGTH - 36);
+    }
+}
@@ -0,0 +1,75 @@
+package com.strahovka.benchmarks;
+
+import com.strahovka.entity.InsurancePolicy;
+import com.strahovka.entity.User;
+import com.strahovka.enums.UserLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loyalty computations: {@link InsurancePolicy#calculateCashback()} (with the former BigDecimal formula
+ * as a baseline) and {@link UserLevel#getLevelByPolicyCount(int)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoyaltyBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final int MASK = SIZE - 1;
+
+    private final InsurancePolicy[] policies = new InsurancePolicy[SIZE];
+    private final int[] policyCounts = new int[SIZE];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        UserLevel[] levels = UserLevel.values();
+        for (int i = 0; i < SIZE; i++) {
+            User user = new User();
+            user.setLevel(levels[random.nextInt(levels.length)]);
+            InsurancePolicy policy = new InsurancePolicy();
+            policy.setUser(user);
+            policy.setPrice(BigDecimal.valueOf(100_000 + random.nextInt(20_000_000), 2));
+            policies[i] = policy;
+            policyCounts[i] = random.nextInt(15);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal cashback() {
+        InsurancePolicy policy = policies[next++ & MASK];
+        policy.calculateCashback();
+        return policy.getCashback();
+    }
+
+    @Benchmark
+    public BigDecimal cashbackBigDecimalBaseline() {
+        InsurancePolicy policy = policies[next++ & MASK];
+        return policy.getPrice().multiply(BigDecimal.valueOf(policy.getUser().getLevel().getCashbackPercentage())
+                        .divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public UserLevel levelByPolicyCount() {
+        return UserLevel.getLevelByPolicyCount(policyCounts[next++ & MASK]);
+    }
+}
@@ -0,0 +1,218 @@
+package com.strahovka.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips of package apply (applications in a JOINED hierarchy plus package links) and package
+ * payment (one policy per application) with IDENTITY keys, one {@code INSERT ... RETURNING id} per row,
+ * against pooled sequence keys with JDBC batching, as Hibernate issues them before and after the
+ * switch to pooled-lo sequences.
+ * <p>
+ * Needs a local Postgres and is not part of the default run:
+ * {@code java -jar benchmarks.jar PackagePersistence -p url=jdbc:postgresql://localhost:5432/strahovka}.
+ * Works in its own {@code jmh_batching} schema, which is dropped afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PackagePersistenceBenchmark {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Param("jdbc:postgresql://localhost:5432/strahovka")
+    public String url;
+
+    @Param("postgres")
+    public String user;
+
+    @Param("postgres")
+    public String password;
+
+    /** Applications per package; 5 is the UI maximum, larger values model bulk payment. */
+    @Param({"5", "50"})
+    public int items;
+
+    private Connection identityConnection;
+    private Connection batchedConnection;
+    private long nextPooledId;
+    private long pooledHi;
+    private long packageId;
+
+    @Setup
+    public void setUp() throws SQLException {
+        identityConnection = DriverManager.getConnection(url, user, password);
+        batchedConnection = DriverManager.getConnection(url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true", user, password);
+        try (Statement st = identityConnection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS jmh_batching CASCADE");
+            st.execute("CREATE SCHEMA jmh_batching");
+            for (String suffix : new String[]{"identity", "pooled"}) {
+                String key = suffix.equals("identity") ? "BIGSERIAL PRIMARY KEY"
+                        : "BIGINT PRIMARY KEY DEFAULT nextval('jmh_batching.pooled_seq')";
+                if (suffix.equals("pooled")) {
+                    st.execute("CREATE SEQUENCE jmh_batching.pooled_seq INCREMENT BY " + ALLOCATION_SIZE);
+                }
+                st.execute("CREATE TABLE jmh_batching.applications_" + suffix + " (id " + key
+                        + ", user_id BIGINT, email VARCHAR(255), status VARCHAR(50), calculated_amount NUMERIC(10,2))");
+                st.execute("CREATE TABLE jmh_batching.kasko_" + suffix + " (id BIGINT PRIMARY KEY, car_make VARCHAR(100), duration INT)");
+                st.execute("CREATE TABLE jmh_batching.links_" + suffix + " (package_id BIGINT, application_id BIGINT, application_type VARCHAR(20))");
+                st.execute("CREATE TABLE jmh_batching.policies_" + suffix + " (id " + key
+                        + ", user_id BIGINT, policy_name VARCHAR(255), price NUMERIC(10,2), application_id BIGINT)");
+            }
+        }
+        identityConnection.setAutoCommit(false);
+        batchedConnection.setAutoCommit(false);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        batchedConnection.close();
+        identityConnection.setAutoCommit(true);
+        try (Statement st = identityConnection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS jmh_batching CASCADE");
+        }
+        identityConnection.close();
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement st = identityConnection.createStatement()) {
+            st.execute("TRUNCATE jmh_batching.applications_identity, jmh_batching.kasko_identity, jmh_batching.links_identity,"
+                    + " jmh_batching.policies_identity, jmh_batching.applications_pooled, jmh_batching.kasko_pooled,"
+                    + " jmh_batching.links_pooled, jmh_batching.policies_pooled");
+        }
+        identityConnection.commit();
+    }
+
+    @Benchmark
+    public long applyAndPayIdentity() throws SQLException {
+        Connection c = identityConnection;
+        long pkg = ++packageId;
+        long[] ids = new long[items];
+        try (PreparedStatement app = c.prepareStatement("INSERT INTO jmh_batching.applications_identity (user_id, email, status, calculated_amount) VALUES (?, ?, ?, ?) RETURNING id");
+             PreparedStatement kasko = c.prepareStatement("INSERT INTO jmh_batching.kasko_identity (id, car_make, duration) VALUES (?, ?, ?)");
+             PreparedStatement link = c.prepareStatement("INSERT INTO jmh_batching.links_identity (package_id, application_id, application_type) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < items; i++) {
+                bindApplication(app, i, 1);
+                try (ResultSet rs = app.executeQuery()) {
+                    rs.next();
+                    ids[i] = rs.getLong(1);
+                }
+                bindKasko(kasko, ids[i]);
+                kasko.executeUpdate();
+            }
+            for (long id : ids) {
+                bindLink(link, pkg, id);
+                link.executeUpdate();
+            }
+        }
+        c.commit();
+        try (PreparedStatement policy = c.prepareStatement("INSERT INTO jmh_batching.policies_identity (user_id, policy_name, price, application_id) VALUES (?, ?, ?, ?) RETURNING id")) {
+            for (long id : ids) {
+                bindPolicy(policy, id, 1);
+                try (ResultSet rs = policy.executeQuery()) {
+                    rs.next();
+                }
+            }
+        }
+        c.commit();
+        return pkg;
+    }
+
+    @Benchmark
+    public long applyAndPayPooledBatched() throws SQLException {
+        Connection c = batchedConnection;
+        long pkg = ++packageId;
+        long[] ids = new long[items];
+        try (PreparedStatement app = c.prepareStatement("INSERT INTO jmh_batching.applications_pooled (id, user_id, email, status, calculated_amount) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement kasko = c.prepareStatement("INSERT INTO jmh_batching.kasko_pooled (id, car_make, duration) VALUES (?, ?, ?)");
+             PreparedStatement link = c.prepareStatement("INSERT INTO jmh_batching.links_pooled (package_id, application_id, application_type) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < items; i++) {
+                ids[i] = nextPooledId(c);
+                app.setLong(1, ids[i]);
+                bindApplication(app, i, 2);
+                app.addBatch();
+                bindKasko(kasko, ids[i]);
+                kasko.addBatch();
+                bindLink(link, pkg, ids[i]);
+                link.addBatch();
+            }
+            // order_inserts: parent rows first, then each child table as one batch
+            app.executeBatch();
+            kasko.executeBatch();
+            link.executeBatch();
+        }
+        c.commit();
+        try (PreparedStatement policy = c.prepareStatement("INSERT INTO jmh_batching.policies_pooled (id, user_id, policy_name, price, application_id) VALUES (?, ?, ?, ?, ?)")) {
+            for (long id : ids) {
+                policy.setLong(1, nextPooledId(c));
+                bindPolicy(policy, id, 2);
+                policy.addBatch();
+            }
+            policy.executeBatch();
+        }
+        c.commit();
+        return pkg;
+    }
+
+    /** Pooled-lo: one {@code nextval} hands out the block {@code [value, value + 49]}. */
+    private long nextPooledId(Connection c) throws SQLException {
+        if (nextPooledId == pooledHi) {
+            try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery("SELECT nextval('jmh_batching.pooled_seq')")) {
+                rs.next();
+                nextPooledId = rs.getLong(1);
+                pooledHi = nextPooledId + ALLOCATION_SIZE;
+            }
+        }
+        return nextPooledId++;
+    }
+
+    private static void bindApplication(PreparedStatement st, int i, int from) throws SQLException {
+        st.setLong(from, 1L);
+        st.setString(from + 1, "bench@example.com");
+        st.setString(from + 2, "PENDING_PACKAGE");
+        st.setBigDecimal(from + 3, BigDecimal.valueOf(10_000 + i * 100L, 2));
+    }
+
+    private static void bindKasko(PreparedStatement st, long id) throws SQLException {
+        st.setLong(1, id);
+        st.setString(2, "Lada");
+        st.setInt(3, 12);
+    }
+
+    private static void bindLink(PreparedStatement st, long packageId, long applicationId) throws SQLException {
+        st.setLong(1, packageId);
+        st.setLong(2, applicationId);
+        st.setString(3, "KASKO");
+    }
+
+    private static void bindPolicy(PreparedStatement st, long applicationId, int from) throws SQLException {
+        st.setLong(from, 1L);
+        st.setString(from + 1, "КАСКО Полис");
+        st.setBigDecimal(from + 2, new BigDecimal("45000.00"));
+        st.setLong(from + 3, applicationId);
+    }
+}
@@ -0,0 +1,160 @@
+package com.strahovka.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strahovka.entity.Insurance.BaseApplication;
+import com.strahovka.entity.Insurance.HealthApplication;
+import com.strahovka.entity.Insurance.InsurancePackage;
+import com.strahovka.entity.Insurance.KaskoApplication;
+import com.strahovka.entity.Insurance.OsagoApplication;
+import com.strahovka.entity.Insurance.PropertyApplication;
+import com.strahovka.entity.Insurance.TravelApplication;
+import com.strahovka.service.PackagePricingService;
+import com.strahovka.service.PricingRuleEngine;
+import com.strahovka.service.TariffEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Package pricing as done by {@code InsuranceService.processPackageApplication}: the single parallel pass of
+ * {@link PackagePricingService#price} against the former item-by-item loop, and a discount change on a priced
+ * package ({@link PackagePricingService#applyDiscountChange}) against re-pricing every item. The database
+ * side of the same flow is in {@link PackagePersistenceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PackagePricingBenchmark {
+
+    private static final int DISCOUNT = 15;
+
+    /** Applications per package; 5 is the UI maximum, larger values model bulk payment. */
+    @Param({"5", "50"})
+    public int items;
+
+    private PackagePricingService packagePricingService;
+    private final List<BaseApplication> applications = new ArrayList<>();
+    private final InsurancePackage pricedPackage = new InsurancePackage();
+    private int nextDiscount;
+
+    @Setup
+    public void setUp() throws IOException {
+        TariffEngine tariffEngine = new TariffEngine(new StandardEnvironment(), event -> { });
+        tariffEngine.reload();
+        PricingRuleEngine pricingRuleEngine = new PricingRuleEngine(new ObjectMapper(), new ClassPathResource("pricing/rules.json"));
+        pricingRuleEngine.load();
+        packagePricingService = new PackagePricingService(tariffEngine, pricingRuleEngine);
+
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < items; i++) {
+            switch (i % 5) {
+                case 0 -> {
+                    KaskoApplication kasko = new KaskoApplication();
+                    kasko.setCarValue(BigDecimal.valueOf((30 + random.nextInt(471)) * 10_000L).setScale(2));
+                    kasko.setCarYear(today.getYear() - random.nextInt(20));
+                    kasko.setDriverExperienceYears(random.nextInt(30));
+                    kasko.setHasAntiTheftSystem(random.nextBoolean());
+                    kasko.setGarageParking(random.nextBoolean());
+                    kasko.setDuration(12);
+                    applications.add(kasko);
+                }
+                case 1 -> {
+                    OsagoApplication osago = new OsagoApplication();
+                    osago.setEnginePower(50 + random.nextInt(250));
+                    osago.setDriverExperienceYears(random.nextInt(30));
+                    osago.setIsUnlimitedDrivers(random.nextInt(4) == 0);
+                    osago.setDuration(12);
+                    applications.add(osago);
+                }
+                case 2 -> {
+                    TravelApplication travel = new TravelApplication();
+                    travel.setDestinationCountry(random.nextBoolean() ? "SCHENGEN" : "USA");
+                    travel.setTravelStartDate(today.plusDays(random.nextInt(60)));
+                    travel.setTravelEndDate(travel.getTravelStartDate().plusDays(1 + random.nextInt(30)));
+                    travel.setCoverLuggage(random.nextBoolean());
+                    applications.add(travel);
+                }
+                case 3 -> {
+                    HealthApplication health = new HealthApplication();
+                    health.setBirthDate(today.minusYears(18 + random.nextInt(60)));
+                    health.setSmokingStatus(random.nextInt(4) == 0);
+                    health.setCoverDental(random.nextBoolean());
+                    applications.add(health);
+                }
+                default -> {
+                    PropertyApplication property = new PropertyApplication();
+                    property.setConstructionType(random.nextBoolean() ? "BRICK" : "WOOD");
+                    property.setPropertyArea(BigDecimal.valueOf(25 + random.nextInt(300)));
+                    property.setPropertyValue(BigDecimal.valueOf((20 + random.nextInt(480)) * 100_000L));
+                    property.setYearBuilt(today.getYear() - random.nextInt(100));
+                    applications.add(property);
+                }
+            }
+        }
+        pricedPackage.setDiscount(DISCOUNT);
+        packagePricingService.applyTo(pricedPackage, priceAll(DISCOUNT));
+    }
+
+    /** The loop {@code processPackageApplication} ran before the parallel pass: price, sum, then discount. */
+    @Benchmark
+    public BigDecimal itemByItemBaseline() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BaseApplication application : applications) {
+            application.setCalculatedAmount(null);
+            BigDecimal amount = packagePricingService.priceItem(application);
+            application.setCalculatedAmount(amount);
+            if (amount != null) total = total.add(amount);
+        }
+        return PackagePricingService.applyDiscount(total, DISCOUNT);
+    }
+
+    @Benchmark
+    public BigDecimal parallelPass() {
+        return priceAll(DISCOUNT).finalAmount();
+    }
+
+    @Benchmark
+    public BigDecimal discountChange() {
+        pricedPackage.setDiscount(nextDiscount++ % 30);
+        packagePricingService.applyDiscountChange(pricedPackage);
+        return pricedPackage.getFinalAmount();
+    }
+
+    @Benchmark
+    public BigDecimal discountChangeRepricingBaseline() {
+        return priceAll(nextDiscount++ % 30).finalAmount();
+    }
+
+    /**
+     * Clears the stored amounts first: TRAVEL, HEALTH and PROPERTY keep a client-supplied amount, which
+     * would otherwise skip the rule tables on every call after the first.
+     */
+    private PackagePricingService.PackageQuote priceAll(int discount) {
+        for (BaseApplication application : applications) {
+            application.setCalculatedAmount(null);
+        }
+        return packagePricingService.price(applications, discount);
+    }
+}
@@ -0,0 +1,114 @@
+package com.strahovka.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strahovka.entity.Insurance.HealthApplication;
+import com.strahovka.entity.Insurance.PropertyApplication;
+import com.strahovka.entity.Insurance.TravelApplication;
+import com.strahovka.service.PricingRuleEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TRAVEL, HEALTH and PROPERTY pricing through the compiled decision tables of the bundled
+ * {@code pricing/rules.json}, as called by the application flows when the client sends no amount.
+ * Inputs are spread over every rule so each product hits a mix of matching and non-matching conditions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingRuleBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final int MASK = SIZE - 1;
+
+    private static final String[] COUNTRIES = {"USA", "Канада", "SCHENGEN", "Шенген", "Турция", "THAILAND", "Япония", "Египет"};
+    private static final String[] COVERAGE_TYPES = {"BASIC", "STANDARD", "PREMIUM"};
+    private static final String[] PROPERTY_TYPES = {"APARTMENT", "HOUSE", "TOWNHOUSE"};
+    private static final String[] CONSTRUCTION_TYPES = {"BRICK", "PANEL", "WOOD", "MONOLITH"};
+
+    private PricingRuleEngine pricingRuleEngine;
+
+    private final TravelApplication[] travel = new TravelApplication[SIZE];
+    private final HealthApplication[] health = new HealthApplication[SIZE];
+    private final PropertyApplication[] property = new PropertyApplication[SIZE];
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        pricingRuleEngine = new PricingRuleEngine(new ObjectMapper(), new ClassPathResource("pricing/rules.json"));
+        pricingRuleEngine.load();
+
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < SIZE; i++) {
+            TravelApplication t = new TravelApplication();
+            t.setDestinationCountry(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+            t.setTravelStartDate(today.plusDays(random.nextInt(60)));
+            t.setTravelEndDate(t.getTravelStartDate().plusDays(1 + random.nextInt(30)));
+            t.setCoverMedicalExpenses(random.nextInt(5) != 0);
+            t.setCoverLuggage(random.nextBoolean());
+            t.setCoverTripCancellation(random.nextBoolean());
+            t.setCoverSportsActivities(random.nextInt(4) == 0);
+            t.setHasChronicDiseases(random.nextInt(5) == 0);
+            travel[i] = t;
+
+            HealthApplication h = new HealthApplication();
+            h.setBirthDate(today.minusYears(1 + random.nextInt(80)).minusDays(random.nextInt(365)));
+            h.setCoverageType(COVERAGE_TYPES[random.nextInt(COVERAGE_TYPES.length)]);
+            h.setCoverageAmount(BigDecimal.valueOf((1 + random.nextInt(50)) * 100_000L));
+            h.setSmokingStatus(random.nextInt(4) == 0);
+            h.setHasChronicDiseases(random.nextInt(5) == 0);
+            h.setHasDisabilities(random.nextInt(10) == 0);
+            h.setCoverDental(random.nextBoolean());
+            h.setCoverVision(random.nextBoolean());
+            h.setCoverMaternity(random.nextInt(5) == 0);
+            h.setCoverEmergency(random.nextInt(5) != 0);
+            health[i] = h;
+
+            PropertyApplication p = new PropertyApplication();
+            p.setPropertyType(PROPERTY_TYPES[random.nextInt(PROPERTY_TYPES.length)]);
+            p.setConstructionType(CONSTRUCTION_TYPES[random.nextInt(CONSTRUCTION_TYPES.length)]);
+            p.setPropertyArea(BigDecimal.valueOf(25 + random.nextInt(300)));
+            p.setPropertyValue(BigDecimal.valueOf((20 + random.nextInt(480)) * 100_000L));
+            p.setYearBuilt(today.getYear() - random.nextInt(100));
+            p.setHasSecuritySystem(random.nextBoolean());
+            p.setHasFireAlarm(random.nextBoolean());
+            p.setCoverNaturalDisasters(random.nextInt(4) != 0);
+            p.setCoverThirdPartyLiability(random.nextBoolean());
+            property[i] = p;
+        }
+    }
+
+    @Benchmark
+    public BigDecimal travel() {
+        return pricingRuleEngine.priceTravel(travel[next++ & MASK]);
+    }
+
+    @Benchmark
+    public BigDecimal health() {
+        return pricingRuleEngine.priceHealth(health[next++ & MASK]);
+    }
+
+    @Benchmark
+    public BigDecimal property() {
+        return pricingRuleEngine.priceProperty(property[next++ & MASK]);
+    }
+}
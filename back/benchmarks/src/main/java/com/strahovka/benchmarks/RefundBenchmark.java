@@ -0,0 +1,76 @@
+package com.strahovka.benchmarks;
+
+import com.strahovka.service.RefundCalculator;
+import com.strahovka.service.RefundCalculator.RefundTerms;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Early-termination refund as computed by {@code InsuranceService.cancelPolicy}, against the former
+ * all-BigDecimal formula as a baseline. Cancellation dates are spread over the whole term, so both
+ * the cooling-off and the pro-rata branch are exercised.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefundBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final int MASK = SIZE - 1;
+
+    private final RefundCalculator refundCalculator = new RefundCalculator();
+    private final BigDecimal[] prices = new BigDecimal[SIZE];
+    private final LocalDate[] startDates = new LocalDate[SIZE];
+    private final LocalDate[] endDates = new LocalDate[SIZE];
+    private final LocalDate[] asOf = new LocalDate[SIZE];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < SIZE; i++) {
+            prices[i] = BigDecimal.valueOf(100_000 + random.nextInt(20_000_000), 2);
+            startDates[i] = today.minusDays(random.nextInt(365));
+            endDates[i] = startDates[i].plusMonths(1 + random.nextInt(24));
+            asOf[i] = startDates[i].plusDays(random.nextInt((int) (endDates[i].toEpochDay() - startDates[i].toEpochDay()) + 1));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal refund() {
+        int i = next++ & MASK;
+        return refundCalculator.refund(prices[i], startDates[i], endDates[i], asOf[i], RefundTerms.DEFAULT);
+    }
+
+    @Benchmark
+    public BigDecimal refundBigDecimalBaseline() {
+        int i = next++ & MASK;
+        long daysSinceActivation = Math.max(0, asOf[i].toEpochDay() - startDates[i].toEpochDay());
+        long totalDays = endDates[i].toEpochDay() - startDates[i].toEpochDay();
+        if (daysSinceActivation <= RefundTerms.DEFAULT.coolingOffDays()) {
+            return prices[i].max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+        }
+        BigDecimal dailyRate = prices[i].divide(BigDecimal.valueOf(totalDays), 10, RoundingMode.HALF_UP);
+        BigDecimal proRataRefund = dailyRate.multiply(BigDecimal.valueOf(totalDays - daysSinceActivation));
+        BigDecimal adminFee = proRataRefund.multiply(BigDecimal.valueOf(RefundTerms.DEFAULT.adminFeePercent(), 2));
+        return proRataRefund.subtract(adminFee).max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,80 @@
+package com.strahovka.benchmarks;
+
+import com.strahovka.service.TariffEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * KASKO/OSAGO pricing from the tariff tables, as used by
+ * {@code InsuranceService.calculateKaskoPrice/calculateOsagoPrice}. Tariffs are the built-in defaults,
+ * which match {@code application.yml}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TariffBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final int MASK = SIZE - 1;
+
+    private TariffEngine tariffEngine;
+
+    private final BigDecimal[] carValues = new BigDecimal[SIZE];
+    private final Integer[] carYears = new Integer[SIZE];
+    private final Integer[] experience = new Integer[SIZE];
+    private final Boolean[] antiTheft = new Boolean[SIZE];
+    private final Boolean[] garage = new Boolean[SIZE];
+    private final Integer[] durations = new Integer[SIZE];
+    private final Integer[] enginePowers = new Integer[SIZE];
+    private final Boolean[] unlimitedDrivers = new Boolean[SIZE];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        tariffEngine = new TariffEngine(new StandardEnvironment(), event -> { });
+        tariffEngine.reload();
+
+        Random random = new Random(42);
+        int currentYear = LocalDate.now().getYear();
+        for (int i = 0; i < SIZE; i++) {
+            // 300 000 .. 5 000 000 roubles in steps of 10 000, as entered in the application form
+            carValues[i] = BigDecimal.valueOf((30 + random.nextInt(471)) * 10_000L).setScale(2);
+            carYears[i] = currentYear - random.nextInt(20);
+            experience[i] = random.nextInt(30);
+            antiTheft[i] = random.nextBoolean();
+            garage[i] = random.nextBoolean();
+            durations[i] = 1 + random.nextInt(24);
+            enginePowers[i] = 50 + random.nextInt(250);
+            unlimitedDrivers[i] = random.nextInt(4) == 0;
+        }
+    }
+
+    @Benchmark
+    public BigDecimal kaskoTariff() {
+        int i = next++ & MASK;
+        return tariffEngine.kaskoPrice(carValues[i], carYears[i], experience[i], antiTheft[i], garage[i], durations[i]);
+    }
+
+    @Benchmark
+    public BigDecimal osagoTariff() {
+        int i = next++ & MASK;
+        return tariffEngine.osagoPrice(enginePowers[i], experience[i], unlimitedDrivers[i], durations[i]);
+    }
+}
@@ -4,10 +4,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan(basePackages = "com.strahovka")
 @EntityScan("com.strahovka.entity")
+@EnableScheduling
 public class StrahovkaApplication {
     public static void main(String[] args) {
         SpringApplication.run(StrahovkaApplication.class, args);
@@ -0,0 +1,75 @@
+package com.strahovka.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-replica routing, enabled with {@code datasource.replicas.enabled=true}. Replaces the auto-configured
+ * DataSource with a {@link ReplicaRoutingDataSource} over the primary pool ({@code spring.datasource.*})
+ * and one pool per URL in {@code datasource.replicas.urls}. Every pool is named and reports its own
+ * {@code hikaricp.*} metrics. For a local check, point a replica URL at the primary database.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryPool(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        pool.setMetricRegistry(meterRegistry);
+        return pool;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(
+            HikariDataSource primaryPool,
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.replicas.urls}") List<String> urls,
+            @Value("${datasource.replicas.username:${spring.datasource.username}}") String username,
+            @Value("${datasource.replicas.password:${spring.datasource.password}}") String password,
+            @Value("${datasource.replicas.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${datasource.replicas.max-lag:5s}") Duration maxLag) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("datasource.replicas.urls must list at least one replica");
+        }
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setJdbcUrl(urls.get(i).trim());
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setDriverClassName(properties.determineDriverClassName());
+            pool.setMaximumPoolSize(maximumPoolSize);
+            pool.setReadOnly(true);
+            // a replica that is down at startup must not stop the application; the lag check retries it
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricRegistry(meterRegistry);
+            replicas.add(pool);
+        }
+        return new ReplicaRoutingDataSource(primaryPool, replicas, maxLag, meterRegistry);
+    }
+
+    /** Defers connection checkout until the first statement, when the transaction's read-only flag is set. */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
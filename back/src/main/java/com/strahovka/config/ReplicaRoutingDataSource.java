@@ -0,0 +1,169 @@
+package com.strahovka.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a replica pool and everything else to the primary.
+ * <p>
+ * Replicas are polled for replication lag; one that lags more than {@code maxLag}, is not streaming from the
+ * primary, or cannot be reached is taken out of rotation until a later check succeeds. With no usable replica, or when a replica
+ * connection fails, read-only work falls back to the primary. Must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the connection is
+ * obtained after the transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    /**
+     * Lag is 0 on a primary or a replica that has replayed everything it received, otherwise seconds since the
+     * last replayed commit. Having replayed everything proves nothing once the WAL receiver has lost the primary,
+     * so the replica must also be streaming. Without {@code pg_read_all_stats} the receiver's status reads as
+     * NULL, and a running receiver is all that can be checked.
+     */
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END AS lag_seconds,
+                   NOT pg_is_in_recovery()
+                       OR EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming' OR status IS NULL) AS streaming
+            """;
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools, Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.maxLag = maxLag;
+        this.fallbacks = Counter.builder("datasource.routing.fallbacks")
+                .description("Read-only connections served by the primary because no replica was usable")
+                .register(meterRegistry);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : replicas) {
+            targets.put(replica.name(), replica.pool);
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .tag("pool", replica.name()).baseUnit("seconds")
+                    .description("Replication lag at the last check")
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("pool", replica.name())
+                    .description("1 while the replica is in rotation")
+                    .register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.name();
+            }
+        }
+        fallbacks.increment();
+        return PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            return primary.getConnection();
+        }
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            markUnhealthy(target, e);
+            fallbacks.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                replica.lagSeconds = rs.getDouble("lag_seconds");
+                boolean streaming = rs.getBoolean("streaming");
+                boolean healthy = streaming && replica.lagSeconds <= maxLag.toMillis() / 1000.0;
+                if (healthy != replica.healthy) {
+                    log.warn("Replica {} {} (streaming {}, lag {} s, tolerance {})", replica.name(),
+                            healthy ? "back in rotation" : "taken out of rotation", streaming, replica.lagSeconds, maxLag);
+                }
+                replica.healthy = healthy;
+            } catch (SQLException e) {
+                markUnhealthy(replica.pool, e);
+            }
+        }
+    }
+
+    private void markUnhealthy(DataSource pool, SQLException cause) {
+        for (Replica replica : replicas) {
+            if (replica.pool == pool && replica.healthy) {
+                replica.healthy = false;
+                log.warn("Replica {} taken out of rotation: {}", replica.name(), cause.getMessage());
+            }
+        }
+    }
+
+    /** Closes the replica pools; the primary pool is a bean of its own. */
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static final class Replica {
+        final HikariDataSource pool;
+        volatile boolean healthy = true;
+        volatile double lagSeconds;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        String name() {
+            return pool.getPoolName();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.strahovka.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -14,9 +15,10 @@ public class SecurityBeans {
     
     public SecurityBeans() {}
 
+    /** Hashing and verification should go through {@link com.strahovka.service.PasswordHashingService}. */
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder passwordEncoder(@Value("${password-hashing.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
 } 
\ No newline at end of file
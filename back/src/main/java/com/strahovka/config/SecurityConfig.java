@@ -28,12 +28,15 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/insurance/unauthorized/**").permitAll()
+                .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/insurance/*/unauthorized").permitAll()
                 .requestMatchers("/api/insurance/packages/public/**").permitAll()
                 .requestMatchers("/api/insurance/guides/**").permitAll()
                 .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/insurance/applications/**").permitAll()
                 .requestMatchers("/api/insurance/packages/admin").hasAuthority("ROLE_ADMIN")
                 .requestMatchers("/error").permitAll()
                 .requestMatchers("/api/admin/**").hasAuthority("ROLE_ADMIN")
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
                 .anyRequest().authenticated()
             );
 
@@ -1,19 +1,35 @@
 package com.strahovka.controller;
 
+import com.strahovka.dto.BulkTransitionRequest;
+import com.strahovka.dto.KeysetPage;
 import com.strahovka.entity.User;
 import com.strahovka.enums.Role;
 import com.strahovka.enums.UserLevel;
 import com.strahovka.repository.UserRepository;
+import com.strahovka.dto.RefundSimulationResult;
+import com.strahovka.service.BulkTransitionService;
+import com.strahovka.service.ExportService;
+import com.strahovka.service.PasswordHashingService;
+import com.strahovka.service.TokenVersionService;
+import com.strahovka.service.PolicyListingService;
+import com.strahovka.service.RefundCalculator.RefundTerms;
+import com.strahovka.service.RefundSimulationJob;
+import com.strahovka.service.RefundSimulationService;
+import com.strahovka.service.TariffEngine;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
@@ -21,7 +37,14 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AdminController {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final TariffEngine tariffEngine;
+    private final RefundSimulationService refundSimulationService;
+    private final RefundSimulationJob refundSimulationJob;
+    private final PolicyListingService policyListingService;
+    private final BulkTransitionService bulkTransitionService;
+    private final ExportService exportService;
+    private final TokenVersionService tokenVersionService;
 
     @GetMapping("/users")
     public ResponseEntity<List<User>> getAllUsers() {
@@ -34,7 +57,6 @@ public class AdminController {
     }
 
     @PostMapping("/moderators")
-    @Transactional
     public ResponseEntity<?> createModerator(@RequestBody User user) {
         try {
             if (user == null || user.getEmail() == null || user.getPassword() == null ||
@@ -44,14 +66,15 @@ public class AdminController {
             }
 
 
+            // Hash before the first query: under open-in-view that query keeps its connection for the request
+            String encodedPassword = passwordHashingService.encode(user.getPassword());
+
             // Check if email already exists
             if (userRepository.existsByEmail(user.getEmail())) {
                 return ResponseEntity.badRequest()
                         .body(Map.of("message", "Email already registered"));
             }
 
-            String encodedPassword = passwordEncoder.encode(user.getPassword());
-
             User newUser = User.builder()
                 .email(user.getEmail())
                 .password(encodedPassword)
@@ -79,6 +102,10 @@ public class AdminController {
 
             return ResponseEntity.ok(responseUser);
             
+        } catch (PasswordHashingService.BusyException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .headers(e.getHeaders())
+                    .body(Map.of("message", e.getReason()));
         } catch (Exception e) {
             String userEmailForLog = (user != null && user.getEmail() != null) ? user.getEmail() : "unknown";
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -100,6 +127,7 @@ public class AdminController {
         }
 
         userRepository.delete(user);
+        tokenVersionService.evict(id);
         return ResponseEntity.ok()
                 .body(Map.of("message", "Moderator deleted successfully"));
     }
@@ -116,6 +144,7 @@ public class AdminController {
 
         user.setRole(Role.ADMIN);
         userRepository.save(user);
+        tokenVersionService.bump(id);
 
         return ResponseEntity.ok()
                 .body(Map.of("message", "User promoted to admin successfully"));
@@ -133,8 +162,108 @@ public class AdminController {
 
         user.setRole(Role.USER);
         userRepository.save(user);
+        tokenVersionService.bump(id);
 
         return ResponseEntity.ok()
                 .body(Map.of("message", "User demoted to regular user successfully"));
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/policies")
+    public ResponseEntity<?> getPolicyPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size) {
+        try {
+            return ResponseEntity.ok(policyListingService.getAllPolicies(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/policies/bulk/cancel")
+    public ResponseEntity<?> cancelPolicies(@RequestBody BulkTransitionRequest request) {
+        try {
+            return ResponseEntity.ok(bulkTransitionService.cancelPolicies(request.getIds(), request.getReason()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/policies/bulk/expire")
+    public ResponseEntity<?> expirePolicies(@RequestBody BulkTransitionRequest request) {
+        try {
+            return ResponseEntity.ok(bulkTransitionService.expirePolicies(request.getIds()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/packages/bulk/cancel")
+    public ResponseEntity<?> cancelPackages(@RequestBody BulkTransitionRequest request) {
+        try {
+            return ResponseEntity.ok(bulkTransitionService.cancelPackages(request.getIds()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/packages/bulk/expire")
+    public ResponseEntity<?> expirePackages(@RequestBody BulkTransitionRequest request) {
+        try {
+            return ResponseEntity.ok(bulkTransitionService.expirePackages(request.getIds()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Streams a whole table as NDJSON or CSV, optionally gzip-compressed, e.g.
+     * {@code GET /api/admin/export/policies?format=csv&gzip=true}.
+     */
+    @GetMapping("/export/{dataset}")
+    public void export(
+            @PathVariable String dataset,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        ExportService.Dataset exportDataset;
+        ExportService.Format exportFormat;
+        try {
+            exportDataset = ExportService.Dataset.parse(dataset);
+            exportFormat = ExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        String fileName = exportDataset.name().toLowerCase(Locale.ROOT) + "-" + LocalDate.now() + "." + exportFormat.extension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : exportFormat.contentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        exportService.export(exportDataset, exportFormat, gzip, response.getOutputStream());
+    }
+
+    @PostMapping("/tariffs/reload")
+    public ResponseEntity<?> reloadTariffs() {
+        tariffEngine.reload();
+        return ResponseEntity.ok()
+                .body(Map.of("message", "Tariff tables reloaded", "version", tariffEngine.getVersion()));
+    }
+
+    @GetMapping("/refunds/simulate")
+    public ResponseEntity<?> simulateRefunds(
+            @RequestParam(defaultValue = "14") int coolingOffDays,
+            @RequestParam(defaultValue = "20") int adminFeePercent,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        try {
+            RefundTerms terms = new RefundTerms(coolingOffDays, adminFeePercent);
+            return ResponseEntity.ok(refundSimulationService.simulate(terms, asOf != null ? asOf : LocalDate.now()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/refunds/simulate/latest")
+    public ResponseEntity<RefundSimulationResult> getLatestRefundSimulation() {
+        RefundSimulationResult latest = refundSimulationJob.getLatest();
+        return latest != null ? ResponseEntity.ok(latest) : ResponseEntity.noContent().build();
+    }
+}
@@ -12,6 +12,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -33,11 +35,43 @@ public class AuthController {
         return ResponseEntity.ok(authService.refreshToken(refreshToken));
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(Authentication authentication) {
+        if (authentication != null && authentication.isAuthenticated() && authentication.getPrincipal() instanceof com.strahovka.entity.User currentUser) {
+            authService.logout(currentUser.getId());
+            return ResponseEntity.ok(Map.of("message", "Logged out"));
+        }
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    /** Sets the first password of a guest account: {@code {"token": ..., "password": ...}}. */
+    @PostMapping("/claim")
+    public ResponseEntity<?> claimAccount(@RequestBody Map<String, String> request) {
+        try {
+            return ResponseEntity.ok(authService.claimAccount(request.get("token"), request.get("password")));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /** Always 202, whether or not a link was mailed, so the endpoint does not reveal which emails have accounts. */
+    @PostMapping("/claim-link")
+    public ResponseEntity<?> requestClaimLink(@RequestBody Map<String, String> request) {
+        String email = request.get("email");
+        if (email == null || email.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Email is required"));
+        }
+        authService.requestClaimLink(email);
+        return ResponseEntity.accepted()
+                .body(Map.of("message", "If this email has an account without a password, a link to set one has been sent"));
+    }
+
     @GetMapping("/validate")
     public ResponseEntity<com.strahovka.entity.User> validateToken(Authentication authentication) {
         if (authentication != null && authentication.isAuthenticated() && authentication.getPrincipal() instanceof com.strahovka.entity.User) {
             com.strahovka.entity.User currentUser = (com.strahovka.entity.User) authentication.getPrincipal();
-            return ResponseEntity.ok(currentUser);
+            // a stateless principal only carries id, email and role
+            return ResponseEntity.ok(authService.getUser(currentUser.getId()));
         }
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
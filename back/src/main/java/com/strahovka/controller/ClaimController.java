@@ -1,18 +1,22 @@
 package com.strahovka.controller;
 
+import com.strahovka.dto.KeysetPage;
 import com.strahovka.entity.Claims.*;
 import com.strahovka.service.ClaimService;
 import com.strahovka.repository.UserRepository;
 import com.strahovka.enums.ClaimStatus;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +43,25 @@ public class ClaimController {
         return ResponseEntity.ok(claimService.getClaimsByStatus(status));
     }
 
+    @GetMapping("/status/{status}/stream")
+    public void streamClaimsByStatus(@PathVariable ClaimStatus status, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        claimService.streamClaimsByStatus(status, response.getOutputStream());
+    }
+
+    @GetMapping("/keyset")
+    public ResponseEntity<?> getClaimPage(
+            @RequestParam(required = false) ClaimStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size) {
+        try {
+            return ResponseEntity.ok(claimService.getClaimPage(status, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/status/{status}/paged")
     public ResponseEntity<Page<InsuranceClaim>> getClaimsByStatusPaged(
             @PathVariable ClaimStatus status,
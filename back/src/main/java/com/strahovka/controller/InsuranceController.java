@@ -1,8 +1,10 @@
 package com.strahovka.controller;
 
+import com.strahovka.dto.KeysetPage;
 import com.strahovka.entity.Claims;
 import com.strahovka.entity.Insurance;
 import com.strahovka.entity.Insurance.*;
+import com.strahovka.entity.ApplicationSummary;
 import com.strahovka.entity.InsurancePolicy;
 import com.strahovka.entity.Claims.InsuranceClaim;
 import com.strahovka.entity.Claims.ClaimAttachment;
@@ -10,10 +12,13 @@ import com.strahovka.dto.KaskoApplicationRequest;
 import com.strahovka.dto.LoginResponse;
 import com.strahovka.dto.OsagoApplicationRequest;
 import com.strahovka.service.InsuranceService;
+import com.strahovka.service.PolicyListingService;
 import com.strahovka.repository.UserRepository;
 import com.strahovka.service.JwtService;
 import com.strahovka.service.AuthService;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -32,8 +37,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import com.strahovka.dto.UserPackageDetailDTO;
 import io.swagger.v3.oas.annotations.Operation;
@@ -47,6 +55,8 @@ public class InsuranceController {
     private final InsuranceService insuranceService;
     private final UserRepository userRepository;
     private final AuthService authService;
+    private final Validator validator;
+    private final PolicyListingService policyListingService;
 
     private String extractEmailFromPayload(Map<String, Object> payload) {
         Object emailObj = payload.get("email");
@@ -87,6 +97,18 @@ public class InsuranceController {
         return ResponseEntity.ok(insuranceService.getUserPolicies(userDetails.getUsername()));
     }
 
+    @GetMapping("/policies/page")
+    public ResponseEntity<?> getUserPolicyPage(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size) {
+        try {
+            return ResponseEntity.ok(policyListingService.getUserPolicies(userDetails.getUsername(), cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/policies")
     public ResponseEntity<InsurancePolicy> createPolicy(
             @RequestBody InsurancePolicy policy,
@@ -381,6 +403,11 @@ public class InsuranceController {
         }
     }
 
+    @GetMapping("/applications")
+    public ResponseEntity<List<ApplicationSummary>> getApplications(Authentication authentication) {
+        return ResponseEntity.ok(insuranceService.getApplicationSummaries(authentication));
+    }
+
     @GetMapping("/applications/kasko")
     public ResponseEntity<List<KaskoApplication>> getKaskoApplications(Authentication authentication) {
         List<KaskoApplication> applications = insuranceService.getKaskoApplications(authentication);
@@ -549,7 +576,12 @@ public class InsuranceController {
     }
 
     @PostMapping("/kasko/unauthorized")
-    public ResponseEntity<?> createKaskoApplicationUnauthorized(@RequestBody KaskoApplicationRequest request) {
+    public ResponseEntity<?> createKaskoApplicationUnauthorized(
+            @RequestBody KaskoApplicationRequest request,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        if (dryRun) {
+            return dryRunQuote(() -> insuranceService.prepareKaskoApplication(request.toKaskoApplication()));
+        }
         LoginResponse loginResponse = authService.registerAndLogin(request.getEmail());
         KaskoApplication application = insuranceService.createKaskoApplication(request.toKaskoApplication(), request.getEmail());
         return ResponseEntity.ok(Map.of(
@@ -559,7 +591,12 @@ public class InsuranceController {
     }
 
     @PostMapping("/osago/unauthorized")
-    public ResponseEntity<?> createOsagoApplicationUnauthorized(@RequestBody OsagoApplicationRequest request) {
+    public ResponseEntity<?> createOsagoApplicationUnauthorized(
+            @RequestBody OsagoApplicationRequest request,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        if (dryRun) {
+            return dryRunQuote(() -> insuranceService.prepareOsagoApplication(request.toOsagoApplication()));
+        }
         LoginResponse loginResponse = authService.registerAndLogin(request.getEmail());
         OsagoApplication application = insuranceService.createOsagoApplication(request.toOsagoApplication(), request.getEmail());
         return ResponseEntity.ok(Map.of(
@@ -569,7 +606,12 @@ public class InsuranceController {
     }
 
     @PostMapping("/travel/unauthorized")
-    public ResponseEntity<?> createTravelApplicationUnauthorized(@RequestBody TravelApplication request) {
+    public ResponseEntity<?> createTravelApplicationUnauthorized(
+            @RequestBody TravelApplication request,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        if (dryRun) {
+            return dryRunQuote(() -> insuranceService.prepareTravelApplication(request));
+        }
         LoginResponse loginResponse = authService.registerAndLogin(request.getEmail());
         TravelApplication application = insuranceService.createTravelApplication(request, request.getEmail());
         return ResponseEntity.ok(Map.of(
@@ -579,7 +621,12 @@ public class InsuranceController {
     }
 
     @PostMapping("/health/unauthorized")
-    public ResponseEntity<?> createHealthApplicationUnauthorized(@RequestBody HealthApplication request) {
+    public ResponseEntity<?> createHealthApplicationUnauthorized(
+            @RequestBody HealthApplication request,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        if (dryRun) {
+            return dryRunQuote(() -> insuranceService.prepareHealthApplication(request));
+        }
         LoginResponse loginResponse = authService.registerAndLogin(request.getEmail());
         HealthApplication application = insuranceService.createHealthApplication(request, request.getEmail());
         return ResponseEntity.ok(Map.of(
@@ -589,7 +636,12 @@ public class InsuranceController {
     }
 
     @PostMapping("/property/unauthorized")
-    public ResponseEntity<?> createPropertyApplicationUnauthorized(@RequestBody PropertyApplication request) {
+    public ResponseEntity<?> createPropertyApplicationUnauthorized(
+            @RequestBody PropertyApplication request,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        if (dryRun) {
+            return dryRunQuote(() -> insuranceService.preparePropertyApplication(request));
+        }
         LoginResponse loginResponse = authService.registerAndLogin(request.getEmail());
         PropertyApplication application = insuranceService.createPropertyApplication(request, request.getEmail());
         return ResponseEntity.ok(Map.of(
@@ -597,4 +649,28 @@ public class InsuranceController {
             "auth", loginResponse
         ));
     }
-} 
\ No newline at end of file
+
+    /**
+     * Quote-only mode of the unauthorized endpoints: validates and prices the application in memory.
+     * No user is registered and nothing is saved until the visitor submits without {@code dryRun}.
+     */
+    private ResponseEntity<?> dryRunQuote(Supplier<? extends BaseApplication> prepare) {
+        BaseApplication application;
+        try {
+            application = prepare.get();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        Set<ConstraintViolation<BaseApplication>> violations = validator.validate(application);
+        if (!violations.isEmpty()) {
+            Map<String, String> errors = new LinkedHashMap<>();
+            violations.forEach(v -> errors.putIfAbsent(v.getPropertyPath().toString(), v.getMessage()));
+            return ResponseEntity.badRequest().body(Map.of("errors", errors));
+        }
+        return ResponseEntity.ok(Map.of(
+            "dryRun", true,
+            "calculatedAmount", application.getCalculatedAmount(),
+            "application", application
+        ));
+    }
+}
@@ -0,0 +1,43 @@
+package com.strahovka.controller;
+
+import com.strahovka.dto.PriceGridRequest;
+import com.strahovka.service.QuoteService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/insurance/quotes")
+@RequiredArgsConstructor
+public class QuoteController {
+    private final QuoteService quoteService;
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void quoteBatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        try {
+            quoteService.quoteBatch(request.getInputStream(), response.getOutputStream());
+        } catch (IllegalArgumentException e) {
+            if (!response.isCommitted()) {
+                response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            }
+        }
+    }
+
+    @PostMapping("/grid")
+    public ResponseEntity<?> priceGrid(@RequestBody PriceGridRequest request) {
+        try {
+            return ResponseEntity.ok(quoteService.priceGrid(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
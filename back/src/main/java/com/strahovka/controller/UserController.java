@@ -2,12 +2,12 @@ package com.strahovka.controller;
 
 import com.strahovka.entity.User;
 import com.strahovka.repository.UserRepository;
+import com.strahovka.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -18,7 +18,7 @@ import java.util.HashMap;
 @RequiredArgsConstructor
 public class UserController {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final UserService userService;
 
     @GetMapping("/profile")
     @PreAuthorize("hasAnyAuthority('USER', 'ADMIN', 'MODERATOR')")
@@ -52,18 +52,12 @@ public class UserController {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String email = auth.getName();
 
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
+        if (!userService.changePassword(email, currentPassword, newPassword)) {
             return ResponseEntity.badRequest().body(Map.of(
                 "message", "Current password is incorrect"
             ));
         }
 
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
-
         return ResponseEntity.ok(Map.of(
             "message", "Password changed successfully"
         ));
@@ -0,0 +1,19 @@
+package com.strahovka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ids to move to the target status of a bulk admin transition; the reason is stored on cancelled policies.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransitionRequest {
+    private List<Long> ids = new ArrayList<>();
+    private String reason;
+}
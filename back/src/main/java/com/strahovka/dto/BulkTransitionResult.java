@@ -0,0 +1,26 @@
+package com.strahovka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of one bulk transition. Ids whose current status does not allow the transition, or that do not
+ * exist, are reported as skipped.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransitionResult {
+    private String entity;
+    private String targetStatus;
+    private int requested;
+    private int affected;
+    private List<Long> skippedIds;
+    private int applicationsUpdated;
+    private long durationMs;
+}
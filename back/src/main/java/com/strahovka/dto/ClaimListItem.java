@@ -0,0 +1,29 @@
+package com.strahovka.dto;
+
+import com.strahovka.enums.ClaimStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a claim listing or moderator queue, selected directly by the query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimListItem {
+    private Long id;
+    private ClaimStatus status;
+    private String description;
+    private Double amountRequested;
+    private Double amountApproved;
+    private Long userId;
+    private String userEmail;
+    private Long policyId;
+    private String policyName;
+    private String processedBy;
+    private LocalDateTime processedAt;
+    private LocalDateTime createdAt;
+}
@@ -1,8 +1,11 @@
 package com.strahovka.dto;
 
 import com.strahovka.entity.InsurancePolicy;
+import com.strahovka.util.KeysetCursor;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class InsurancePolicyMapper {
 
@@ -32,4 +35,8 @@ public class InsurancePolicyMapper {
 
         return dto;
     }
+
+    public KeysetPage<PolicyListItem> toPage(List<PolicyListItem> rows, int size) {
+        return KeysetPage.of(rows, size, item -> new KeysetCursor(item.getCreatedAt(), item.getId()));
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.strahovka.dto;
+
+import com.strahovka.enums.PolicyStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One row of a paged policy listing, selected directly by the query without loading the policy graph.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PolicyListItem {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private BigDecimal cashback;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private boolean active;
+    private PolicyStatus status;
+    private String packageName;
+    private Long categoryId;
+    private String categoryName;
+    private Long userId;
+    private LocalDateTime createdAt;
+}
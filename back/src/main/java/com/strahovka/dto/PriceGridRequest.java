@@ -0,0 +1,29 @@
+package com.strahovka.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base KASKO/OSAGO application plus the fields to vary. Every combination of axis values is priced.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceGridRequest {
+    private String type;
+    private JsonNode base;
+    private List<Axis> axes = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Axis {
+        private String field;
+        private List<JsonNode> values = new ArrayList<>();
+    }
+}
@@ -0,0 +1,24 @@
+package com.strahovka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Price matrix in row-major order: the last axis varies fastest, so the cell for axis indices
+ * (i0, i1, ..., in) is at {@code ((i0 * size1 + i1) * size2 + ...) + in}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceGridResult {
+    private String type;
+    private List<PriceGridRequest.Axis> axes;
+    private int cellCount;
+    private BigDecimal[] prices;
+}
@@ -0,0 +1,56 @@
+package com.strahovka.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decision tables for rule-priced products, as stored in {@code pricing/rules.json}.
+ */
+@Data
+@NoArgsConstructor
+public class PricingRules {
+    private Map<String, ProductRules> products;
+
+    /**
+     * Base amount is {@code unitField * unitRate} when that field is present and positive, otherwise {@code baseAmount}.
+     * Every matching rule is then applied in order, and the result is clamped to {@code minimum}/{@code maximum}.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class ProductRules {
+        private BigDecimal baseAmount;
+        private String unitField;
+        private BigDecimal unitRate;
+        private BigDecimal minimum;
+        private BigDecimal maximum;
+        private List<Rule> rules = new ArrayList<>();
+    }
+
+    /** All {@code when} conditions must hold; the amount is then multiplied by {@code multiply} and increased by {@code add}. */
+    @Data
+    @NoArgsConstructor
+    public static class Rule {
+        private String name;
+        private List<Condition> when = new ArrayList<>();
+        private BigDecimal multiply;
+        private BigDecimal add;
+    }
+
+    /**
+     * {@code op} is one of eq, ne, gt, gte, lt, lte, between (numbers); eq, ne, in, notIn (text);
+     * isTrue, isFalse (flags). {@code between} takes {@code values: [from, to)}.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Condition {
+        private String field;
+        private String op;
+        private Object value;
+        private List<Object> values;
+    }
+}
@@ -0,0 +1,22 @@
+package com.strahovka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pricing-relevant columns of an active policy, read by the refund simulator without loading entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefundCandidate {
+    private Long policyId;
+    private String categoryName;
+    private BigDecimal price;
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
@@ -0,0 +1,44 @@
+package com.strahovka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefundSimulationResult {
+    private LocalDate asOf;
+    private int coolingOffDays;
+    private int adminFeePercent;
+    private long policyCount;
+    private long coolingOffCount;
+    private long skippedCount;
+    private BigDecimal totalPremium;
+    private BigDecimal totalRefund;
+    private List<Bucket> buckets;
+    private LocalDateTime generatedAt;
+    private long durationMs;
+
+    /** Totals for one category and policy start month. */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private String category;
+        private YearMonth startMonth;
+        private long policyCount;
+        private long coolingOffCount;
+        private BigDecimal totalPremium;
+        private BigDecimal totalRefund;
+    }
+}
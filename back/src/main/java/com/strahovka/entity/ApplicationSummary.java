@@ -0,0 +1,56 @@
+package com.strahovka.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized, read-only row per application for "my applications" listings. Written by
+ * {@link com.strahovka.service.ApplicationSummaryWriter} whenever an application is saved or deleted.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "application_summary")
+public class ApplicationSummary {
+
+    @Id
+    @Column(name = "application_id")
+    private Long applicationId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "application_type", nullable = false, length = 20)
+    private String applicationType;
+
+    @Column(name = "status", length = 50)
+    private String status;
+
+    @Column(name = "calculated_amount", precision = 12, scale = 2)
+    private BigDecimal calculatedAmount;
+
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Column(name = "application_date")
+    private LocalDateTime applicationDate;
+
+    @Column(name = "display_label", length = 500)
+    private String displayLabel;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -19,7 +19,8 @@ public class Claims {
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     public static class InsuranceClaim {
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "insurance_claims_seq")
+        @SequenceGenerator(name = "insurance_claims_seq", sequenceName = "insurance_claims_id_seq", allocationSize = 50)
         private Long id;
 
         @ManyToOne
@@ -34,7 +35,7 @@ public class Claims {
 
         private String description;
 
-        @Column(name = "created_at")
+        @Column(name = "created_at", nullable = false, updatable = false)
         private LocalDateTime createdAt;
 
         @Enumerated(EnumType.STRING)
@@ -83,7 +84,8 @@ public class Claims {
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     public static class ClaimAttachment {
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_attachments_seq")
+        @SequenceGenerator(name = "claim_attachments_seq", sequenceName = "claim_attachments_id_seq", allocationSize = 50)
         private Long id;
 
         @ManyToOne
@@ -124,7 +126,8 @@ public class Claims {
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     public static class ClaimMessage {
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_messages_seq")
+        @SequenceGenerator(name = "claim_messages_seq", sequenceName = "claim_messages_id_seq", allocationSize = 50)
         private Long id;
 
         @ManyToOne
@@ -162,7 +165,8 @@ public class Claims {
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     public static class ClaimComment {
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "claim_comments_seq")
+        @SequenceGenerator(name = "claim_comments_seq", sequenceName = "claim_comments_id_seq", allocationSize = 50)
         private Long id;
 
         @ManyToOne
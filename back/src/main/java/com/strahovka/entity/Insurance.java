@@ -4,9 +4,12 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.strahovka.enums.PackageType;
 import com.strahovka.enums.PackageStatus;
+import com.strahovka.service.ApplicationSummaryListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -27,7 +30,8 @@ public class Insurance {
     @EqualsAndHashCode(exclude = {"categories", "applicationLinks"})
     public static class InsurancePackage {
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "insurance_packages_seq")
+        @SequenceGenerator(name = "insurance_packages_seq", sequenceName = "insurance_packages_id_seq", allocationSize = 50)
         private Long id;
 
         @NotBlank(message = "Название пакета обязательно")
@@ -98,11 +102,14 @@ public class Insurance {
     @AllArgsConstructor
     @Entity
     @Table(name = "insurance_categories")
+    @Cacheable
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "insurance_categories")
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     @EqualsAndHashCode(exclude = {"packages"})
     public static class InsuranceCategory {
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "insurance_categories_seq")
+        @SequenceGenerator(name = "insurance_categories_seq", sequenceName = "insurance_categories_id_seq", allocationSize = 50)
         private Long id;
 
         @NotBlank(message = "Название категории обязательно")
@@ -132,10 +139,13 @@ public class Insurance {
     @AllArgsConstructor
     @Entity
     @Table(name = "insurance_guides")
+    @Cacheable
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "insurance_guides")
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     public static class InsuranceGuide {
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "insurance_guides_seq")
+        @SequenceGenerator(name = "insurance_guides_seq", sequenceName = "insurance_guides_id_seq", allocationSize = 50)
         private Long id;
 
         @NotBlank(message = "Название справочника обязательно")
@@ -184,6 +194,7 @@ public class Insurance {
 
     @Entity
     @Table(name = "base_applications")
+    @EntityListeners(ApplicationSummaryListener.class)
     @Inheritance(strategy = InheritanceType.JOINED)
     @DiscriminatorColumn(name = "application_type")
     @Getter
@@ -191,7 +202,8 @@ public class Insurance {
     @NoArgsConstructor
     public static class BaseApplication {
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "base_applications_seq")
+        @SequenceGenerator(name = "base_applications_seq", sequenceName = "base_applications_id_seq", allocationSize = 50)
         private Long id;
 
         @ManyToOne(fetch = FetchType.LAZY)
@@ -3,6 +3,7 @@ package com.strahovka.entity;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.strahovka.enums.PolicyStatus;
 import com.strahovka.entity.Claims.InsuranceClaim;
+import com.strahovka.util.Money;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -10,6 +11,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -27,7 +29,8 @@ import java.util.List;
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class InsurancePolicy {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "insurance_policies_seq")
+    @SequenceGenerator(name = "insurance_policies_seq", sequenceName = "insurance_policies_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Название полиса обязательно")
@@ -42,7 +45,7 @@ public class InsurancePolicy {
     @Column(name = "price", nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false, foreignKey = @ForeignKey(name = "fk_policy_category"))
     @JsonIgnoreProperties({"packages", "hibernateLazyInitializer", "handler"})
     private Insurance.InsuranceCategory category;
@@ -51,7 +54,7 @@ public class InsurancePolicy {
     @Builder.Default
     private boolean active = true;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_policy_user"))
     @JsonIgnoreProperties({"policies", "hibernateLazyInitializer", "handler"})
     private User user;
@@ -74,7 +77,7 @@ public class InsurancePolicy {
     @Builder.Default
     private BigDecimal cashback = BigDecimal.ZERO;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "guide_id", foreignKey = @ForeignKey(name = "fk_insurance_policies_guide"))
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
     private Insurance.InsuranceGuide guide;
@@ -98,15 +101,21 @@ public class InsurancePolicy {
     @Builder.Default
     private List<InsuranceClaim> claims = new ArrayList<>();
 
+    @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
 
     @PrePersist
     @PreUpdate
     public void calculateCashback() {
         if (user != null && user.getLevel() != null && price != null) {
-            BigDecimal cashbackPercentage = BigDecimal.valueOf(user.getLevel().getCashbackPercentage())
-                    .divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
-            this.cashback = price.multiply(cashbackPercentage)
+            int cashbackPercentage = user.getLevel().getCashbackPercentage();
+            if (Money.isExact(price)) {
+                this.cashback = Money.of(price).percent(cashbackPercentage).toBigDecimal();
+                return;
+            }
+            this.cashback = price.multiply(BigDecimal.valueOf(cashbackPercentage)
+                            .divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP))
                     .setScale(2, RoundingMode.HALF_UP);
         }
     }
@@ -24,13 +24,14 @@ import java.util.List;
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User implements UserDetails {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
     private String email;
 
-    @Column(nullable = false)
+    // null for a guest account until its owner claims it, see AccountClaimService
     private String password;
 
     @Column(name = "first_name")
@@ -48,21 +49,21 @@ public class User implements UserDetails {
     @Enumerated(EnumType.STRING)
     private Role role;
 
-    @Column(name = "access_token")
-    private String accessToken;
-
-    @Column(name = "refresh_token")
-    private String refreshToken;
-
+    // level and policy_count are maintained by PolicyCounter with atomic SQL updates, never by entity flushes
     @Enumerated(EnumType.STRING)
-    @Column(name = "level", nullable = false)
+    @Column(name = "level", nullable = false, updatable = false)
     @Builder.Default
     private UserLevel level = UserLevel.WOODEN;
 
-    @Column(name = "policy_count")
+    @Column(name = "policy_count", updatable = false)
     @Builder.Default
     private Integer policyCount = 0;
 
+    // bumped with an atomic SQL update by TokenVersionService to revoke issued tokens
+    @Column(name = "token_version", nullable = false, updatable = false)
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
@@ -73,6 +74,11 @@ public class User implements UserDetails {
         return email;
     }
 
+    /** Created by an unauthorized application and not yet claimed; only meaningful for a user loaded from the database. */
+    public boolean isGuest() {
+        return password == null;
+    }
+
     @Override
     public boolean isAccountNonExpired() {
         return true;
@@ -92,16 +98,4 @@ public class User implements UserDetails {
     public boolean isEnabled() {
         return true;
     }
-
-    public void incrementPolicyCount() {
-        this.policyCount++;
-        this.level = UserLevel.getLevelByPolicyCount(this.policyCount);
-    }
-
-    public void decrementPolicyCount() {
-        if (this.policyCount > 0) {
-            this.policyCount--;
-            this.level = UserLevel.getLevelByPolicyCount(this.policyCount);
-        }
-    }
 } 
\ No newline at end of file
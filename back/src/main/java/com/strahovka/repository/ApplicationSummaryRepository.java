@@ -0,0 +1,12 @@
+package com.strahovka.repository;
+
+import com.strahovka.entity.ApplicationSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ApplicationSummaryRepository extends JpaRepository<ApplicationSummary, Long> {
+    List<ApplicationSummary> findByUserIdOrderByApplicationDateDescApplicationIdDesc(Long userId);
+}
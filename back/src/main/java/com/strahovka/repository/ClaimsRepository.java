@@ -1,19 +1,25 @@
 package com.strahovka.repository;
 
+import com.strahovka.dto.ClaimListItem;
 import com.strahovka.entity.InsurancePolicy;
 import com.strahovka.entity.Claims.*;
 import com.strahovka.entity.User;
 import com.strahovka.enums.ClaimStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ClaimsRepository extends JpaRepository<InsuranceClaim, Long> {
@@ -23,6 +29,36 @@ public interface ClaimsRepository extends JpaRepository<InsuranceClaim, Long> {
     Page<InsuranceClaim> findByStatus(ClaimStatus status, Pageable pageable);
     Page<InsuranceClaim> findAll(Pageable pageable);
 
+    String CLAIM_LIST_ITEM = "SELECT new com.strahovka.dto.ClaimListItem(c.id, c.status, c.description, c.amountRequested, " +
+            "c.amountApproved, u.id, u.email, p.id, p.name, c.processedBy, c.processedAt, c.createdAt) " +
+            "FROM Claims$InsuranceClaim c LEFT JOIN c.user u LEFT JOIN c.policy p ";
+
+    /*
+     * Keyset pages ordered by (createdAt, id) descending, served by the (created_at, id) and
+     * (status, created_at, id) indexes. Pass PageRequest.of(0, size) as the limit.
+     */
+
+    @Query(CLAIM_LIST_ITEM + "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ClaimListItem> findClaimPage(Pageable limit);
+
+    @Query(CLAIM_LIST_ITEM + "WHERE (c.createdAt, c.id) < (:createdAt, :id) ORDER BY c.createdAt DESC, c.id DESC")
+    List<ClaimListItem> findClaimPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Pageable limit);
+
+    @Query(CLAIM_LIST_ITEM + "WHERE c.status = :status ORDER BY c.createdAt DESC, c.id DESC")
+    List<ClaimListItem> findClaimPageByStatus(@Param("status") ClaimStatus status, Pageable limit);
+
+    @Query(CLAIM_LIST_ITEM + "WHERE c.status = :status AND (c.createdAt, c.id) < (:createdAt, :id) ORDER BY c.createdAt DESC, c.id DESC")
+    List<ClaimListItem> findClaimPageByStatusAfter(@Param("status") ClaimStatus status, @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("id") long id, Pageable limit);
+
+    /**
+     * Streams the whole queue for a status with a bounded JDBC fetch size; must be consumed inside a
+     * (read-only) transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(CLAIM_LIST_ITEM + "WHERE c.status = :status ORDER BY c.createdAt DESC, c.id DESC")
+    Stream<ClaimListItem> streamByStatus(@Param("status") ClaimStatus status);
+
     @Query("SELECT a FROM Claims$ClaimAttachment a WHERE a.claim.id = :claimId")
     List<ClaimAttachment> findAttachmentsByClaim(@Param("claimId") Long claimId);
 
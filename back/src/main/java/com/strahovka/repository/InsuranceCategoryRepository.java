@@ -1,13 +1,24 @@
 package com.strahovka.repository;
 
 import com.strahovka.entity.Insurance.InsuranceCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface InsuranceCategoryRepository extends JpaRepository<InsuranceCategory, Long> {
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<InsuranceCategory> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<InsuranceCategory> findByName(String name);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<InsuranceCategory> findByNameAndType(String name, String type);
-} 
\ No newline at end of file
+} 
@@ -2,8 +2,11 @@ package com.strahovka.repository;
 
 import com.strahovka.entity.Insurance.InsurancePackage;
 import com.strahovka.enums.PackageStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -18,9 +21,11 @@ public interface InsurancePackageRepository extends JpaRepository<InsurancePacka
     @Query("SELECT DISTINCT p FROM InsurancePackageEntity p LEFT JOIN FETCH p.categories WHERE p.status = :status")
     List<InsurancePackage> findByStatus(@Param("status") PackageStatus status);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT DISTINCT p FROM InsurancePackageEntity p LEFT JOIN FETCH p.categories WHERE p.active = true")
     List<InsurancePackage> findByActiveTrue();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT DISTINCT p FROM InsurancePackageEntity p LEFT JOIN FETCH p.categories")
     List<InsurancePackage> findAllWithCategories();
 
@@ -1,35 +1,82 @@
 package com.strahovka.repository;
 
+import com.strahovka.dto.PolicyListItem;
+import com.strahovka.dto.RefundCandidate;
 import com.strahovka.entity.Insurance.*;
 import com.strahovka.entity.InsurancePolicy;
 import com.strahovka.entity.User;
 import com.strahovka.enums.PolicyStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InsuranceRepository extends JpaRepository<InsurancePolicy, Long> {
 
+    String POLICY_LIST_ITEM = "SELECT new com.strahovka.dto.PolicyListItem(p.id, p.name, p.price, p.cashback, p.startDate, p.endDate, " +
+            "p.active, p.status, p.packageName, c.id, c.name, p.user.id, p.createdAt) FROM InsurancePolicy p LEFT JOIN p.category c ";
+
+    @EntityGraph(attributePaths = {"category", "user", "guide"})
     @Query("SELECT p FROM InsurancePolicy p WHERE p.user.email = :username")
     List<InsurancePolicy> findPoliciesByUsername(@Param("username") String username);
 
+    @Override
+    @EntityGraph(attributePaths = {"category", "user", "guide"})
+    List<InsurancePolicy> findAll();
+
+    /*
+     * Keyset pages ordered by (createdAt, id) descending; the row-value comparison is served by the
+     * (created_at DESC, id DESC) indexes, so the cost of a page does not depend on how deep it is.
+     * Pass PageRequest.of(0, size) as the limit.
+     */
+
+    @Query(POLICY_LIST_ITEM + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PolicyListItem> findPolicyPage(Pageable limit);
+
+    @Query(POLICY_LIST_ITEM + "WHERE (p.createdAt, p.id) < (:createdAt, :id) ORDER BY p.createdAt DESC, p.id DESC")
+    List<PolicyListItem> findPolicyPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") long id, Pageable limit);
+
+    @Query(POLICY_LIST_ITEM + "WHERE p.user.id = :userId ORDER BY p.createdAt DESC, p.id DESC")
+    List<PolicyListItem> findUserPolicyPage(@Param("userId") Long userId, Pageable limit);
+
+    @Query(POLICY_LIST_ITEM + "WHERE p.user.id = :userId AND (p.createdAt, p.id) < (:createdAt, :id) ORDER BY p.createdAt DESC, p.id DESC")
+    List<PolicyListItem> findUserPolicyPageAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") long id, Pageable limit);
+
     @Query("SELECT COUNT(p) FROM InsurancePolicy p WHERE p.user = :user AND p.status = :status AND p.active = :active")
     long countByUserAndStatusAndActive(@Param("user") User user, @Param("status") PolicyStatus status, @Param("active") boolean active);
 
+    @EntityGraph(attributePaths = {"category", "user", "guide"})
     @Query("SELECT p FROM InsurancePolicy p WHERE p.status = :status")
     List<InsurancePolicy> findPoliciesByStatus(@Param("status") PolicyStatus status);
 
+    /**
+     * Streams projections with a bounded JDBC fetch size; must be consumed inside a (read-only) transaction
+     * and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.strahovka.dto.RefundCandidate(p.id, c.name, p.price, p.startDate, p.endDate) " +
+           "FROM InsurancePolicy p JOIN p.category c WHERE p.status = :status")
+    Stream<RefundCandidate> streamRefundCandidates(@Param("status") PolicyStatus status);
+
     @Modifying
     @Query("DELETE FROM InsurancePolicy p WHERE p.id = :id")
     void deletePolicyById(@Param("id") Long id);
 
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT g FROM Insurance$InsuranceGuide g")
     List<InsuranceGuide> findAllGuides();
 
@@ -38,5 +85,6 @@ public interface InsuranceRepository extends JpaRepository<InsurancePolicy, Long
     void deleteGuideById(@Param("id") Long id);
 
 
+    @EntityGraph(attributePaths = {"category", "user"})
     Optional<InsurancePolicy> findByIdAndUser(Long policyId, User user);
 } 
\ No newline at end of file
@@ -5,9 +5,13 @@ import com.strahovka.entity.PackageApplicationId;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PackageApplicationLinkRepository extends JpaRepository<PackageApplicationLink, PackageApplicationId> {
     Optional<PackageApplicationLink> findByApplicationIdAndApplicationType(Long applicationId, String applicationType);
+
+    List<PackageApplicationLink> findByPackageIdIn(Collection<Long> packageIds);
 } 
\ No newline at end of file
@@ -1,11 +1,17 @@
 package com.strahovka.security;
 
+import com.strahovka.entity.User;
+import com.strahovka.enums.Role;
 import com.strahovka.service.JwtService;
+import com.strahovka.service.TokenVersionService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,12 +23,25 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Authenticates Bearer tokens.
+ * <p>
+ * With {@code jwt.stateless} (the default) the signed user id, role and token version are trusted until
+ * expiry: the principal is a {@link User} holding only id, email, role and token version, and the one check
+ * is the cached {@link TokenVersionService} version, so a request costs no query. Tokens without those
+ * claims, and every token when the mode is off, go through {@link UserDetailsService} as before. Either way
+ * the token is parsed and verified once, through {@link JwtService#parseClaims(String)}.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+
+    @Value("${jwt.stateless:true}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(
@@ -31,21 +50,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        final String jwt = authHeader.substring(7);
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = authenticate(jwt);
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -59,4 +74,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    private UserDetails authenticate(String jwt) {
+        Claims claims;
+        try {
+            claims = jwtService.parseClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        Integer tokenVersion = claims.get(JwtService.CLAIM_TOKEN_VERSION, Integer.class);
+
+        if (stateless) {
+            Long userId = claims.get(JwtService.CLAIM_USER_ID, Long.class);
+            String role = claims.get(JwtService.CLAIM_ROLE, String.class);
+            if (userId != null && role != null && tokenVersion != null) {
+                if (tokenVersion != tokenVersionService.current(userId)) {
+                    return null;
+                }
+                return User.builder()
+                        .id(userId)
+                        .email(claims.getSubject())
+                        .role(Role.valueOf(role))
+                        .tokenVersion(tokenVersion)
+                        .build();
+            }
+        }
+
+        String userEmail = claims.getSubject();
+        if (userEmail == null) {
+            return null;
+        }
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        if (!jwtService.isTokenValid(claims, userDetails)) {
+            return null;
+        }
+        if (tokenVersion != null && userDetails instanceof User user && !tokenVersion.equals(user.getTokenVersion())) {
+            return null;
+        }
+        return userDetails;
+    }
+}
@@ -0,0 +1,130 @@
+package com.strahovka.service;
+
+import com.strahovka.entity.User;
+import com.strahovka.repository.UserRepository;
+import com.strahovka.util.TokenHashes;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One-time tokens with which the owner of a guest account sets its first password.
+ * <p>
+ * Guest accounts have no password hash, so creating one on an unauthorized application costs no BCrypt. Tokens
+ * are random, stored only as SHA-256 in {@code account_claim_tokens}, expire after {@code account-claim.ttl},
+ * and are consumed with a single {@code DELETE ... RETURNING}, so one token claims at most once.
+ * <p>
+ * A token proves ownership of the account only because it is mailed to the account's email, so {@link #issue}
+ * is called by {@link ClaimLinkMailer} alone; a token is never handed to the client that submitted the
+ * application. A {@link ClaimLinkRequested} event asks for a link to be mailed.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountClaimService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final String INSERT = """
+            INSERT INTO account_claim_tokens (token_hash, user_id, expires_at) VALUES (?, ?, ?)
+            """;
+
+    private static final String CONSUME = """
+            DELETE FROM account_claim_tokens
+            WHERE token_hash = ? AND expires_at > CURRENT_TIMESTAMP
+            RETURNING user_id
+            """;
+
+    private static final String ISSUED_SINCE = """
+            SELECT EXISTS (SELECT 1 FROM account_claim_tokens WHERE user_id = ?
+                           AND created_at > CURRENT_TIMESTAMP - make_interval(secs => ?))
+            """;
+
+    private static final String PURGE = """
+            DELETE FROM account_claim_tokens WHERE expires_at <= CURRENT_TIMESTAMP
+            """;
+
+    /** Asks for a claim link to be mailed to the guest account; sent after the publishing transaction commits. */
+    public record ClaimLinkRequested(long userId) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${account-claim.ttl:48h}")
+    private Duration ttl;
+
+    @Value("${account-claim.resend-interval:5m}")
+    private Duration resendInterval;
+
+    /** How long an issued token stays valid. */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /** True if a token was issued for the user within {@code account-claim.resend-interval}. */
+    @Transactional(readOnly = true)
+    public boolean issuedRecently(long userId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(ISSUED_SINCE, Boolean.class, userId,
+                (double) resendInterval.toSeconds()));
+    }
+
+    /** Issues a claim token for a guest account and returns it for mailing to its email; only its hash is stored. */
+    @Transactional
+    public String issue(User user) {
+        if (!user.isGuest()) {
+            throw new IllegalArgumentException("Account already has a password");
+        }
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        jdbcTemplate.update(INSERT, TokenHashes.sha256Hex(token), user.getId(), Timestamp.from(Instant.now().plus(ttl)));
+        return token;
+    }
+
+    /**
+     * Consumes the token and sets the password of its guest account. The password is hashed before the
+     * transaction, so no connection is held while BCrypt runs; the hash is wasted on an invalid token.
+     */
+    public User claim(String token, String password) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Claim token is required");
+        }
+        if (password == null || password.isBlank()) {
+            throw new IllegalArgumentException("Password is required");
+        }
+        String passwordHash = passwordHashingService.encode(password);
+
+        return transactionTemplate.execute(status -> {
+            List<Long> userIds = jdbcTemplate.queryForList(CONSUME, Long.class, TokenHashes.sha256Hex(token));
+            if (userIds.isEmpty()) {
+                throw new IllegalArgumentException("Invalid or expired claim token");
+            }
+            User user = userRepository.findById(userIds.get(0))
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid or expired claim token"));
+            if (!user.isGuest()) {
+                throw new IllegalArgumentException("Account already has a password");
+            }
+            user.setPassword(passwordHash);
+            return userRepository.save(user);
+        });
+    }
+
+    /** Deletes expired tokens and returns how many were deleted. */
+    @Transactional
+    public int purgeExpired() {
+        return jdbcTemplate.update(PURGE);
+    }
+}
@@ -0,0 +1,34 @@
+package com.strahovka.service;
+
+import com.strahovka.entity.Insurance.BaseApplication;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA lifecycle listener on {@link BaseApplication} that mirrors every insert, update and delete into
+ * the application summary. Created by Hibernate through Spring's bean container; the writer is
+ * resolved lazily because listeners are instantiated while the EntityManagerFactory is built.
+ */
+@Component
+public class ApplicationSummaryListener {
+
+    private final ObjectProvider<ApplicationSummaryWriter> writer;
+
+    public ApplicationSummaryListener(ObjectProvider<ApplicationSummaryWriter> writer) {
+        this.writer = writer;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(BaseApplication application) {
+        writer.getObject().upsert(application);
+    }
+
+    @PostRemove
+    public void onRemove(BaseApplication application) {
+        writer.getObject().delete(application.getId());
+    }
+}
@@ -0,0 +1,66 @@
+package com.strahovka.service;
+
+import com.strahovka.entity.Insurance.BaseApplication;
+import com.strahovka.util.ApplicationLabels;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.Collection;
+
+/**
+ * Keeps {@code application_summary} in step with {@code base_applications}.
+ * <p>
+ * Writes go through plain JDBC on the transaction's connection, so they can run from inside a Hibernate
+ * flush and commit or roll back together with the application row. The foreign key to
+ * {@code base_applications} is deferred, so the summary may be written before a batched application insert.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationSummaryWriter {
+
+    private static final String UPSERT = """
+            INSERT INTO application_summary (application_id, user_id, email, application_type, status, calculated_amount,
+                                             start_date, end_date, application_date, display_label, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (application_id) DO UPDATE SET
+                user_id = EXCLUDED.user_id, email = EXCLUDED.email, application_type = EXCLUDED.application_type,
+                status = EXCLUDED.status, calculated_amount = EXCLUDED.calculated_amount, start_date = EXCLUDED.start_date,
+                end_date = EXCLUDED.end_date, application_date = EXCLUDED.application_date,
+                display_label = EXCLUDED.display_label, updated_at = EXCLUDED.updated_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void upsert(BaseApplication application) {
+        String type = ApplicationLabels.type(application);
+        if (application.getId() == null || type == null) return;
+        jdbcTemplate.update(UPSERT,
+                application.getId(),
+                application.getUser() != null ? application.getUser().getId() : null,
+                application.getEmail(),
+                type,
+                application.getStatus(),
+                application.getCalculatedAmount(),
+                application.getStartDate() != null ? Date.valueOf(application.getStartDate()) : null,
+                application.getEndDate() != null ? Date.valueOf(application.getEndDate()) : null,
+                application.getApplicationDate() != null ? Timestamp.valueOf(application.getApplicationDate()) : null,
+                ApplicationLabels.displayName(application, null));
+    }
+
+    /** Mirrors a bulk status change of {@code base_applications} that bypassed the entity listener. */
+    public void updateStatus(Collection<Long> applicationIds, String status) {
+        if (applicationIds.isEmpty()) return;
+        jdbcTemplate.update("UPDATE application_summary SET status = ?, updated_at = CURRENT_TIMESTAMP WHERE application_id = ANY(?)",
+                ps -> {
+                    ps.setString(1, status);
+                    ps.setArray(2, ps.getConnection().createArrayOf("bigint", applicationIds.toArray()));
+                });
+    }
+
+    public void delete(Long applicationId) {
+        jdbcTemplate.update("DELETE FROM application_summary WHERE application_id = ?", applicationId);
+    }
+}
@@ -2,77 +2,127 @@ package com.strahovka.service;
 
 import com.strahovka.entity.User;
 import com.strahovka.enums.Role;
+import com.strahovka.enums.UserLevel;
 import com.strahovka.dto.LoginRequest;
 import com.strahovka.dto.LoginResponse;
 import com.strahovka.dto.RegisterRequest;
 import com.strahovka.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Login, registration and token refresh.
+ * <p>
+ * BCrypt runs outside any transaction: {@link PasswordHashingService} may keep a caller waiting for up to
+ * {@code password-hashing.timeout}, and a caller holding a pooled connection meanwhile would let a login storm
+ * drain the connection pool for every other endpoint. The password hash is read with one statement, verified or
+ * computed with no connection held, and a short transaction then only writes the user and issues the tokens.
+ */
 @Service
 @RequiredArgsConstructor
 public class AuthService {
+    /** Takes its id from the entity sequence; a concurrent insert of the same email wins and this one is a no-op. */
+    private static final String INSERT_GUEST = """
+            INSERT INTO users (id, email, password, first_name, last_name, role, level, policy_count, token_version)
+            VALUES (nextval('users_id_seq'), ?, NULL, ?, '', ?, ?, 0, 0)
+            ON CONFLICT (email) DO NOTHING
+            """;
+
+    private static final String SELECT_CREDENTIALS = """
+            SELECT id, password FROM users WHERE email = ?
+            """;
+
+    private static final String SELECT_GUEST_ID = """
+            SELECT id FROM users WHERE email = ? AND password IS NULL
+            """;
+
+    private record Credentials(long userId, String passwordHash) {
+    }
+
     private final UserRepository userRepository;
     private final JwtService jwtService;
-    private final BCryptPasswordEncoder passwordEncoder;
-
-    @Transactional
+    private final PasswordHashingService passwordHashingService;
+    private final TokenVersionService tokenVersionService;
+    private final RefreshTokenStore refreshTokenStore;
+    private final AccountClaimService accountClaimService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Not transactional: see the class comment. */
     public LoginResponse login(LoginRequest request) {
-        User user = userRepository.findByEmail(request.getEmail())
+        Credentials credentials = jdbcTemplate.query(SELECT_CREDENTIALS,
+                        (rs, i) -> new Credentials(rs.getLong("id"), rs.getString("password")), request.getEmail())
+                .stream().findFirst()
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (credentials.passwordHash() == null) {
+            throw new RuntimeException("Account has no password yet: set one through the link mailed to you,"
+                    + " or request a new link at /api/auth/claim-link");
+        }
+        if (!passwordHashingService.matches(request.getPassword(), credentials.passwordHash())) {
             throw new RuntimeException("Invalid password");
         }
-
-        String token = jwtService.generateToken(user.getEmail());
-        String refreshToken = jwtService.generateRefreshToken(user.getEmail());
-
-        user.setAccessToken(token);
-        user.setRefreshToken(refreshToken);
-        userRepository.save(user);
-
-        return LoginResponse.builder()
-                .accessToken(token)
-                .refreshToken(refreshToken)
-                .id(user.getId())
-                .email(user.getEmail())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .middleName(user.getMiddleName())
-                .phone(user.getPhone())
-                .role(user.getRole())
-                .level(user.getLevel())
-                .policyCount(user.getPolicyCount())
-                .build();
+        String rehash = rehashIfNeeded(credentials.passwordHash(), request.getPassword());
+
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findById(credentials.userId())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            // a password changed since the read wins over the rehash of the old one
+            if (rehash != null && credentials.passwordHash().equals(user.getPassword())) {
+                user.setPassword(rehash);
+                userRepository.save(user);
+            }
+            return issueSession(user);
+        });
     }
 
-    @Transactional
-    public LoginResponse register(RegisterRequest request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already registered");
+    /**
+     * The hash with the configured BCrypt cost after it changed, or null; skipped, and retried next login,
+     * when the pool is busy.
+     */
+    private String rehashIfNeeded(String passwordHash, String rawPassword) {
+        if (!passwordHashingService.needsRehash(passwordHash)) return null;
+        try {
+            return passwordHashingService.encode(rawPassword);
+        } catch (PasswordHashingService.BusyException e) {
+            // keep the old hash; it still verifies
+            return null;
         }
+    }
 
-        User user = User.builder()
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .firstName(request.getFirstName())
-                .lastName(request.getLastName())
-                .middleName(request.getMiddleName())
-                .phone(request.getPhone())
-                .role(Role.USER)
-                .build();
-
-        userRepository.save(user);
+    /** Not transactional: the password is hashed first, then the user is inserted in a short transaction. */
+    public LoginResponse register(RegisterRequest request) {
+        String passwordHash = passwordHashingService.encode(request.getPassword());
+
+        return transactionTemplate.execute(status -> {
+            if (userRepository.existsByEmail(request.getEmail())) {
+                throw new RuntimeException("Email already registered");
+            }
+
+            User user = User.builder()
+                    .email(request.getEmail())
+                    .password(passwordHash)
+                    .firstName(request.getFirstName())
+                    .lastName(request.getLastName())
+                    .middleName(request.getMiddleName())
+                    .phone(request.getPhone())
+                    .role(Role.USER)
+                    .build();
 
-        String token = jwtService.generateToken(user.getEmail());
-        String refreshToken = jwtService.generateRefreshToken(user.getEmail());
+            userRepository.save(user);
+            return issueSession(user);
+        });
+    }
 
-        user.setAccessToken(token);
-        user.setRefreshToken(refreshToken);
-        userRepository.save(user);
+    /** Issues an access token and a refresh token that starts a new session; runs in the caller's transaction. */
+    private LoginResponse issueSession(User user) {
+        String token = jwtService.generateToken(user);
+        String refreshToken = refreshTokenStore.issue(user);
 
         return LoginResponse.builder()
                 .accessToken(token)
@@ -95,22 +145,14 @@ public class AuthService {
             throw new RuntimeException("Invalid refresh token format");
         }
 
-        String tokenValue = refreshToken.substring(7);
-        String userEmail = jwtService.extractUsername(tokenValue);
+        // opaque: expiry and revocation are checked by the store
+        RefreshTokenStore.StoredToken stored = refreshTokenStore.accept(refreshToken.substring(7));
 
-        User user = userRepository.findByEmail(userEmail)
+        User user = userRepository.findById(stored.userId())
                 .orElseThrow(() -> new RuntimeException("User not found for refresh token"));
 
-        if (!jwtService.isTokenValid(tokenValue, user) || !tokenValue.equals(user.getRefreshToken())) {
-            throw new RuntimeException("Invalid or expired refresh token");
-        }
-
-        String newAccessToken = jwtService.generateToken(userEmail);
-        String newGeneratedRefreshToken = jwtService.generateRefreshToken(userEmail);
-
-        user.setAccessToken(newAccessToken);
-        user.setRefreshToken(newGeneratedRefreshToken);
-        userRepository.save(user);
+        String newAccessToken = jwtService.generateToken(user);
+        String newGeneratedRefreshToken = refreshTokenStore.issue(user, stored.familyId());
 
         return LoginResponse.builder()
                 .accessToken(newAccessToken)
@@ -127,32 +169,53 @@ public class AuthService {
                 .build();
     }
 
+    /** Revokes all access and refresh tokens of the user. */
+    @Transactional
+    public void logout(Long userId) {
+        refreshTokenStore.revokeAll(userId);
+        tokenVersionService.bump(userId);
+    }
 
+    @Transactional(readOnly = true)
+    public User getUser(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    /**
+     * The account for {@code email}, or a new guest account without a password (no BCrypt on this path).
+     * The insert tolerates a concurrent one for the same email, so simultaneous applications share one user.
+     * A guest account, new or not, gets its claim link mailed once the transaction commits.
+     */
     @Transactional
     public User createOrGetUserByEmail(String email) {
-        return userRepository.findByEmail(email)
+        User user = userRepository.findByEmail(email)
             .orElseGet(() -> {
-                User newUser = User.builder()
-                    .email(email)
-                    .password(passwordEncoder.encode(email))
-                    .firstName(email.split("@")[0])
-                    .lastName("") // Empty lastName
-                    .role(Role.USER)
-                    .build();
-                return userRepository.save(newUser);
+                jdbcTemplate.update(INSERT_GUEST, email, email.split("@")[0], Role.USER.name(), UserLevel.WOODEN.name());
+                return userRepository.findByEmail(email)
+                    .orElseThrow(() -> new IllegalStateException("Guest user not found after insert: " + email));
             });
+        if (user.isGuest()) {
+            eventPublisher.publishEvent(new AccountClaimService.ClaimLinkRequested(user.getId()));
+        }
+        return user;
+    }
+
+    /**
+     * Mails a new claim link if {@code email} belongs to a guest account, and silently does nothing otherwise,
+     * so the caller cannot tell which emails have accounts. Throttled by {@link ClaimLinkMailer}.
+     */
+    public void requestClaimLink(String email) {
+        jdbcTemplate.queryForList(SELECT_GUEST_ID, Long.class, email)
+                .forEach(userId -> eventPublisher.publishEvent(new AccountClaimService.ClaimLinkRequested(userId)));
     }
 
     @Transactional
     public LoginResponse registerAndLogin(String email) {
         User user = createOrGetUserByEmail(email);
         
-        String token = jwtService.generateToken(email);
-        String refreshToken = jwtService.generateRefreshToken(email);
-
-        user.setAccessToken(token);
-        user.setRefreshToken(refreshToken);
-        userRepository.save(user);
+        String token = jwtService.generateToken(user);
+        String refreshToken = refreshTokenStore.issue(user);
 
         return LoginResponse.builder()
                 .accessToken(token)
@@ -168,4 +231,13 @@ public class AuthService {
                 .policyCount(user.getPolicyCount())
                 .build();
     }
+
+    /**
+     * Sets the first password of a guest account from its claim token and logs the owner in. Not transactional:
+     * the claim hashes the password before its own transaction, and the session is issued in a second one.
+     */
+    public LoginResponse claimAccount(String claimToken, String password) {
+        User user = accountClaimService.claim(claimToken, password);
+        return transactionTemplate.execute(status -> issueSession(user));
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,250 @@
+package com.strahovka.service;
+
+import com.strahovka.dto.BulkTransitionResult;
+import com.strahovka.entity.Insurance.InsurancePackage;
+import com.strahovka.enums.PackageStatus;
+import com.strahovka.enums.PolicyStatus;
+import com.strahovka.service.CatalogCache.CatalogChangedEvent;
+import com.strahovka.service.PolicyCounter.PolicyBatchTransitionEvent;
+import com.strahovka.service.PolicyCounter.Transition;
+import com.strahovka.service.RefundCalculator.RefundTerms;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based status transitions for policies, packages and their applications.
+ * <p>
+ * Each batch is a single {@code UPDATE ... WHERE id = ANY(?)} with the allowed source statuses in the
+ * predicate, so ids that are already past the transition are skipped instead of failing the batch, and
+ * {@code RETURNING} reports what changed. Related applications and their summary rows follow in one
+ * statement each. One event per batch adjusts policy counts or evicts the catalogue cache, since these
+ * writes bypass Hibernate.
+ */
+@Service
+@RequiredArgsConstructor
+public class BulkTransitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkTransitionService.class);
+
+    private static final String CANCEL_POLICIES = """
+            UPDATE insurance_policies p
+            SET status = 'CANCELLED', active = false, cancelled_at = CURRENT_TIMESTAMP, cancellation_reason = ?
+            FROM (SELECT id, active FROM insurance_policies WHERE id = ANY(?) AND status = 'ACTIVE' FOR UPDATE) old
+            WHERE p.id = old.id AND p.status = 'ACTIVE'
+            RETURNING p.id, p.user_id, old.active AS was_active, p.price, p.start_date, p.end_date
+            """;
+
+    private static final String EXPIRE_POLICIES = """
+            UPDATE insurance_policies p
+            SET status = 'EXPIRED', active = false
+            FROM (SELECT id, active FROM insurance_policies WHERE id = ANY(?) AND status = 'ACTIVE' FOR UPDATE) old
+            WHERE p.id = old.id AND p.status = 'ACTIVE'
+            RETURNING p.id, p.user_id, old.active AS was_active, p.price, p.start_date, p.end_date
+            """;
+
+    private static final String CANCEL_POLICY_APPLICATIONS = """
+            UPDATE base_applications SET status = 'CANCELLED'
+            WHERE "policyId" = ANY(?) AND status IS DISTINCT FROM 'CANCELLED'
+            RETURNING id
+            """;
+
+    private static final String CANCEL_PACKAGES = """
+            UPDATE insurance_packages SET status = 'CANCELLED'
+            WHERE id = ANY(?) AND COALESCE(status, 'PENDING') NOT IN ('CANCELLED', 'COMPLETED')
+            RETURNING id
+            """;
+
+    private static final String EXPIRE_PACKAGES = """
+            UPDATE insurance_packages SET status = 'INACTIVE', active = false
+            WHERE id = ANY(?) AND COALESCE(status, 'PENDING') IN ('PENDING', 'PARTIALLY_COMPLETED', 'ACTIVE')
+            RETURNING id
+            """;
+
+    private static final String CANCEL_PENDING_PACKAGE_APPLICATIONS = """
+            UPDATE base_applications a SET status = 'CANCELLED'
+            FROM package_applications l
+            WHERE l.application_id = a.id AND l.package_id = ANY(?) AND a.status IN ('PENDING', 'PENDING_PAYMENT')
+            RETURNING a.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationSummaryWriter applicationSummaryWriter;
+    private final RefundCalculator refundCalculator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${bulk-transitions.max-ids:10000}")
+    private int maxIds;
+
+    private record PolicyRow(long id, Long userId, boolean wasActive, BigDecimal price, LocalDate startDate, LocalDate endDate) {
+    }
+
+    /** Cancels ACTIVE policies with the default refund terms and cancels their applications. */
+    @Transactional
+    public BulkTransitionResult cancelPolicies(Collection<Long> policyIds, String reason) {
+        long started = System.nanoTime();
+        Set<Long> ids = checkIds(policyIds);
+        List<PolicyRow> rows = jdbcTemplate.query(CANCEL_POLICIES, ps -> {
+            ps.setString(1, reason);
+            ps.setArray(2, idArray(ps, ids));
+        }, (rs, i) -> policyRow(rs));
+
+        List<Long> cancelled = rows.stream().map(PolicyRow::id).toList();
+        storeRefunds(rows);
+        int applications = cancelApplicationsOfPolicies(cancelled);
+        publishPolicyBatch(Transition.CANCELLED, rows);
+        return result("policies", PolicyStatus.CANCELLED.name(), ids, cancelled, applications, started);
+    }
+
+    /** Expires ACTIVE policies; no refund is due and applications keep their status. */
+    @Transactional
+    public BulkTransitionResult expirePolicies(Collection<Long> policyIds) {
+        long started = System.nanoTime();
+        Set<Long> ids = checkIds(policyIds);
+        List<PolicyRow> rows = jdbcTemplate.query(EXPIRE_POLICIES, ps -> ps.setArray(1, idArray(ps, ids)), (rs, i) -> policyRow(rs));
+
+        List<Long> expired = rows.stream().map(PolicyRow::id).toList();
+        publishPolicyBatch(Transition.EXPIRED, rows);
+        return result("policies", PolicyStatus.EXPIRED.name(), ids, expired, 0, started);
+    }
+
+    /** Cancels packages that are neither cancelled nor completed, together with their unpaid applications. */
+    @Transactional
+    public BulkTransitionResult cancelPackages(Collection<Long> packageIds) {
+        long started = System.nanoTime();
+        Set<Long> ids = checkIds(packageIds);
+        List<Long> cancelled = updateIds(CANCEL_PACKAGES, ids);
+        int applications = cancelPendingApplicationsOfPackages(cancelled);
+        packagesChanged(cancelled);
+        return result("packages", PackageStatus.CANCELLED.name(), ids, cancelled, applications, started);
+    }
+
+    /** Retires open packages: INACTIVE and no longer active. */
+    @Transactional
+    public BulkTransitionResult expirePackages(Collection<Long> packageIds) {
+        long started = System.nanoTime();
+        Set<Long> ids = checkIds(packageIds);
+        List<Long> expired = updateIds(EXPIRE_PACKAGES, ids);
+        packagesChanged(expired);
+        return result("packages", PackageStatus.INACTIVE.name(), ids, expired, 0, started);
+    }
+
+    /** Cancels every application issued for the given policies; joins the caller's transaction. */
+    @Transactional
+    public int cancelApplicationsOfPolicies(Collection<Long> policyIds) {
+        if (policyIds.isEmpty()) return 0;
+        List<Long> applicationIds = updateIds(CANCEL_POLICY_APPLICATIONS, policyIds);
+        applicationSummaryWriter.updateStatus(applicationIds, "CANCELLED");
+        return applicationIds.size();
+    }
+
+    /** Cancels the PENDING and PENDING_PAYMENT applications of the given packages; joins the caller's transaction. */
+    @Transactional
+    public int cancelPendingApplicationsOfPackages(Collection<Long> packageIds) {
+        if (packageIds.isEmpty()) return 0;
+        List<Long> applicationIds = updateIds(CANCEL_PENDING_PACKAGE_APPLICATIONS, packageIds);
+        applicationSummaryWriter.updateStatus(applicationIds, "CANCELLED");
+        return applicationIds.size();
+    }
+
+    private Set<Long> checkIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("No ids given");
+        }
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        if (distinct.size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " ids per call");
+        }
+        return distinct;
+    }
+
+    private List<Long> updateIds(String sql, Collection<Long> ids) {
+        return jdbcTemplate.query(sql, ps -> ps.setArray(1, idArray(ps, ids)), (rs, i) -> rs.getLong(1));
+    }
+
+    private static Array idArray(PreparedStatement ps, Collection<Long> ids) throws SQLException {
+        return ps.getConnection().createArrayOf("bigint", ids.toArray());
+    }
+
+    private static PolicyRow policyRow(ResultSet rs) throws SQLException {
+        Date startDate = rs.getDate("start_date");
+        Date endDate = rs.getDate("end_date");
+        return new PolicyRow(rs.getLong("id"), rs.getObject("user_id", Long.class), rs.getBoolean("was_active"),
+                rs.getBigDecimal("price"),
+                startDate != null ? startDate.toLocalDate() : null,
+                endDate != null ? endDate.toLocalDate() : null);
+    }
+
+    /** Refunds follow {@link RefundCalculator} as for a single cancellation; rows it cannot price keep no refund. */
+    private void storeRefunds(List<PolicyRow> rows) {
+        LocalDate today = LocalDate.now();
+        List<Object[]> refunds = new ArrayList<>(rows.size());
+        for (PolicyRow row : rows) {
+            if (row.price() == null || row.startDate() == null || row.endDate() == null) continue;
+            try {
+                BigDecimal refund = refundCalculator.refund(row.price(), row.startDate(), row.endDate(), today, RefundTerms.DEFAULT);
+                refunds.add(new Object[]{refund, row.id()});
+            } catch (IllegalStateException e) {
+                log.warn("No refund stored for bulk-cancelled policy {}: {}", row.id(), e.getMessage());
+            }
+        }
+        if (!refunds.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE insurance_policies SET refund_amount = ? WHERE id = ?", refunds);
+        }
+    }
+
+    private void publishPolicyBatch(Transition transition, List<PolicyRow> rows) {
+        Map<Long, Integer> policiesByUser = new HashMap<>();
+        for (PolicyRow row : rows) {
+            if (row.wasActive() && row.userId() != null) {
+                policiesByUser.merge(row.userId(), 1, Integer::sum);
+            }
+        }
+        eventPublisher.publishEvent(new PolicyBatchTransitionEvent(transition, policiesByUser));
+    }
+
+    private void packagesChanged(List<Long> packageIds) {
+        if (!packageIds.isEmpty()) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(InsurancePackage.class, null));
+        }
+    }
+
+    private static BulkTransitionResult result(String entity, String targetStatus, Set<Long> requested, List<Long> affected,
+                                               int applications, long started) {
+        Set<Long> skipped = new LinkedHashSet<>(requested);
+        affected.forEach(skipped::remove);
+        long durationMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Bulk transition of {} to {}: {} requested, {} affected, {} applications updated in {} ms",
+                entity, targetStatus, requested.size(), affected.size(), applications, durationMs);
+        return BulkTransitionResult.builder()
+                .entity(entity)
+                .targetStatus(targetStatus)
+                .requested(requested.size())
+                .affected(affected.size())
+                .skippedIds(new ArrayList<>(skipped))
+                .applicationsUpdated(applications)
+                .durationMs(durationMs)
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.strahovka.service;
+
+import com.strahovka.entity.Insurance.InsuranceCategory;
+import com.strahovka.entity.Insurance.InsuranceGuide;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Second-level cache of the catalogue: categories and guides as entities, packages only through the cacheable
+ * catalogue queries. {@code insurance_packages} also holds users' own packages, which are written on every
+ * package application and payment, so package entities stay out of the entity cache; the query cache keeps the
+ * full result rows, so a hit still loads nothing. Hibernate keeps the regions consistent for writes made through
+ * the session; admin writes additionally publish a {@link CatalogChangedEvent} and the whole catalogue is evicted
+ * after commit, which also covers bulk JPQL deletes. With the {@code hibernate-stats} profile, hit/miss statistics
+ * are exported through the actuator as {@code hibernate.second.level.cache.*} and {@code hibernate.cache.query.*}
+ * metrics.
+ */
+@Component
+public class CatalogCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogCache.class);
+
+    /** Published by admin writes to categories, guides and packages. */
+    public record CatalogChangedEvent(Class<?> entityType, Long id) {
+    }
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CatalogCache(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        evict();
+        log.debug("Catalog cache evicted after change to {} {}", event.entityType().getSimpleName(), event.id());
+    }
+
+    public void evict() {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictEntityData(InsuranceCategory.class);
+        cache.evictEntityData(InsuranceGuide.class);
+        cache.evictQueryRegions();
+    }
+}
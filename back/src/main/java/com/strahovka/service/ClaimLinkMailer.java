@@ -0,0 +1,124 @@
+package com.strahovka.service;
+
+import com.strahovka.entity.User;
+import com.strahovka.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mails the one-time claim link of a guest account to its email.
+ * <p>
+ * Runs after the transaction that asked for the link commits, on one background thread with a queue of
+ * {@code account-claim.mail-queue-capacity}, so an unauthorized application never waits on the mail server;
+ * requests beyond the queue are dropped, and the guest can ask for a link again. At most one link per
+ * {@code account-claim.resend-interval} goes to an account. Mail is sent through {@code spring.mail.*}; without
+ * {@code spring.mail.host} no link is sent. Counted in {@code account.claim.mails} by {@code result}.
+ */
+@Service
+public class ClaimLinkMailer {
+
+    private static final Logger log = LoggerFactory.getLogger(ClaimLinkMailer.class);
+
+    private final AccountClaimService accountClaimService;
+    private final UserRepository userRepository;
+    private final ObjectProvider<JavaMailSender> mailSender;
+    private final String link;
+    private final String from;
+    private final ThreadPoolExecutor executor;
+    private final Counter sent;
+    private final Counter throttled;
+    private final Counter dropped;
+    private final Counter failed;
+
+    public ClaimLinkMailer(AccountClaimService accountClaimService, UserRepository userRepository,
+                           ObjectProvider<JavaMailSender> mailSender, MeterRegistry meterRegistry,
+                           @Value("${account-claim.link:http://localhost:3000/claim?token=}") String link,
+                           @Value("${account-claim.mail-from:no-reply@strahovka.local}") String from,
+                           @Value("${account-claim.mail-queue-capacity:1000}") int queueCapacity) {
+        this.accountClaimService = accountClaimService;
+        this.userRepository = userRepository;
+        this.mailSender = mailSender;
+        this.link = link;
+        this.from = from;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "claim-link-mailer");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "claim.link.mailer");
+        this.sent = Counter.builder("account.claim.mails").tag("result", "sent").register(meterRegistry);
+        this.throttled = Counter.builder("account.claim.mails").tag("result", "throttled").register(meterRegistry);
+        this.dropped = Counter.builder("account.claim.mails").tag("result", "dropped").register(meterRegistry);
+        this.failed = Counter.builder("account.claim.mails").tag("result", "failed").register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onClaimLinkRequested(AccountClaimService.ClaimLinkRequested event) {
+        try {
+            executor.execute(() -> send(event.userId()));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            log.warn("Claim link queue is full, no link mailed to user {}", event.userId());
+        }
+    }
+
+    /** The single mail thread also serialises the resend check and the issue for an account. */
+    private void send(long userId) {
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) {
+            failed.increment();
+            log.warn("No mail server configured (spring.mail.host), no claim link mailed to user {}", userId);
+            return;
+        }
+        try {
+            User user = userRepository.findById(userId).filter(User::isGuest).orElse(null);
+            if (user == null) {
+                // claimed or deleted since the request
+                return;
+            }
+            if (accountClaimService.issuedRecently(userId)) {
+                throttled.increment();
+                return;
+            }
+            String token = accountClaimService.issue(user);
+
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(from);
+            message.setTo(user.getEmail());
+            message.setSubject("Установите пароль для личного кабинета");
+            message.setText("Здравствуйте!\n\n"
+                    + "Для вас создан личный кабинет, в котором можно следить за вашими заявками на страхование.\n"
+                    + "Чтобы войти в него, установите пароль по ссылке:\n\n"
+                    + link + token + "\n\n"
+                    + "Ссылка действует " + accountClaimService.getTtl().toHours() + " ч. и может быть использована один раз.\n"
+                    + "Если вы не оставляли заявку, просто проигнорируйте это письмо.");
+            sender.send(message);
+            sent.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Claim link to user {} not sent: {}", userId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
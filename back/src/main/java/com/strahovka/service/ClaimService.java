@@ -1,25 +1,40 @@
 package com.strahovka.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.strahovka.dto.ClaimListItem;
+import com.strahovka.dto.KeysetPage;
 import com.strahovka.entity.Claims.*;
 import com.strahovka.enums.ClaimStatus;
 import com.strahovka.repository.ClaimsRepository;
 import com.strahovka.repository.UserRepository;
+import com.strahovka.util.KeysetCursor;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ClaimService {
+    private static final int STREAM_FLUSH_ROWS = 500;
+
     private final ClaimsRepository claimsRepository;
     private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
     
     @PersistenceContext
     private EntityManager entityManager;
@@ -39,6 +54,47 @@ public class ClaimService {
         return claimsRepository.findAll(pageable);
     }
 
+    /** Newest first; {@code status} is optional and {@code cursor} is the token from the previous page. */
+    @Transactional(readOnly = true)
+    public KeysetPage<ClaimListItem> getClaimPage(ClaimStatus status, String cursor, int size) {
+        int pageSize = KeysetPage.checkSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<ClaimListItem> rows;
+        if (status == null) {
+            rows = after == null
+                    ? claimsRepository.findClaimPage(limit)
+                    : claimsRepository.findClaimPageAfter(after.createdAt(), after.id(), limit);
+        } else {
+            rows = after == null
+                    ? claimsRepository.findClaimPageByStatus(status, limit)
+                    : claimsRepository.findClaimPageByStatusAfter(status, after.createdAt(), after.id(), limit);
+        }
+        return KeysetPage.of(rows, pageSize, item -> new KeysetCursor(item.getCreatedAt(), item.getId()));
+    }
+
+    /**
+     * Writes every claim with the given status as newline-delimited JSON without materialising the list.
+     */
+    @Transactional(readOnly = true)
+    public long streamClaimsByStatus(ClaimStatus status, OutputStream out) throws IOException {
+        long count = 0;
+        ObjectWriter writer = objectMapper.writerFor(ClaimListItem.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<ClaimListItem> claims = claimsRepository.streamByStatus(status);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            Iterator<ClaimListItem> iterator = claims.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++count % STREAM_FLUSH_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return count;
+    }
+
     @Transactional(readOnly = true)
     public List<ClaimAttachment> getAttachmentsByClaim(Long claimId) {
         return claimsRepository.findAttachmentsByClaim(claimId);
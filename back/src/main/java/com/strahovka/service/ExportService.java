@@ -0,0 +1,262 @@
+package com.strahovka.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Admin exports of whole tables as NDJSON or CSV.
+ * <p>
+ * Rows come from a forward-only, read-only JDBC cursor with a bounded fetch size and are written to the
+ * output stream as they are read, so memory use does not depend on table size. The user export leaves out
+ * passwords and tokens.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final int FLUSH_ROWS = 500;
+
+    public enum Dataset {
+        POLICIES("""
+                SELECT p.id, p.user_id, u.email AS user_email, p.policy_name, c.name AS category, p.status, p.active,
+                       p.price, p.cashback, p.start_date, p.end_date, p.package_name, p.package_discount,
+                       p.cancelled_at, p.refund_amount, p.created_at
+                FROM insurance_policies p
+                LEFT JOIN users u ON u.id = p.user_id
+                LEFT JOIN insurance_categories c ON c.id = p.category_id
+                ORDER BY p.id
+                """),
+        CLAIMS("""
+                SELECT id, user_id, policy_id, status, description, amount_requested, amount_approved,
+                       processed_by, processed_at, created_at
+                FROM insurance_claims
+                ORDER BY id
+                """),
+        USERS("""
+                SELECT id, email, first_name, last_name, middle_name, phone, role, level, policy_count
+                FROM users
+                ORDER BY id
+                """);
+
+        private final String sql;
+
+        Dataset(String sql) {
+            this.sql = sql;
+        }
+
+        public static Dataset parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown export: " + value);
+            }
+        }
+    }
+
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON_VALUE, "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown export format: " + value);
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${exports.fetch-size:1000}")
+    private int fetchSize;
+
+    /** Writes every row of the dataset to {@code out} and returns the row count; {@code out} is not closed. */
+    @Transactional(readOnly = true)
+    public long export(Dataset dataset, Format format, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192, true) : out;
+        RowWriter writer = format == Format.CSV ? new CsvRowWriter(target) : new NdjsonRowWriter(objectMapper, target);
+        long count;
+        try {
+            count = jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(dataset.sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                return ps;
+            }, rs -> {
+                long rows = 0;
+                try {
+                    writer.header(rs.getMetaData());
+                    while (rs.next()) {
+                        writer.row(rs);
+                        if (++rows % FLUSH_ROWS == 0) writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return rows;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+        if (gzip) ((GZIPOutputStream) target).finish();
+        return count;
+    }
+
+    private interface RowWriter {
+        void header(ResultSetMetaData meta) throws SQLException, IOException;
+
+        void row(ResultSet rs) throws SQLException, IOException;
+
+        void flush() throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    /** One JSON object per line, keyed by column label. */
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private String[] columns;
+
+        NdjsonRowWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void header(ResultSetMetaData meta) throws SQLException {
+            columns = labels(meta);
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeFieldName(columns[i]);
+                Object value = rs.getObject(i + 1);
+                if (value == null) generator.writeNull();
+                else if (value instanceof Boolean b) generator.writeBoolean(b);
+                else if (value instanceof Number) generator.writeNumber(value.toString());
+                else generator.writeString(text(value));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+
+    /** RFC 4180 CSV with a header row; fields are quoted only when needed. */
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private int columnCount;
+
+        CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void header(ResultSetMetaData meta) throws SQLException, IOException {
+            String[] labels = labels(meta);
+            columnCount = labels.length;
+            for (int i = 0; i < labels.length; i++) {
+                if (i > 0) writer.write(',');
+                writer.write(labels[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= columnCount; i++) {
+                if (i > 1) writer.write(',');
+                Object value = rs.getObject(i);
+                if (value != null) writeField(text(value));
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String field) throws IOException {
+            boolean quote = field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(field);
+                return;
+            }
+            writer.write('"');
+            writer.write(field.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static String[] labels(ResultSetMetaData meta) throws SQLException {
+        String[] labels = new String[meta.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = meta.getColumnLabel(i + 1);
+        }
+        return labels;
+    }
+
+    /** ISO-8601 for dates and timestamps, {@code toString()} otherwise. */
+    private static String text(Object value) {
+        if (value instanceof Timestamp timestamp) return timestamp.toLocalDateTime().toString();
+        if (value instanceof Date date) return date.toLocalDate().toString();
+        return value.toString();
+    }
+}
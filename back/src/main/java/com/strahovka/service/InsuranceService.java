@@ -5,6 +5,7 @@ import com.strahovka.entity.Claims.InsuranceClaim;
 import com.strahovka.entity.Claims.ClaimAttachment;
 import com.strahovka.entity.Insurance;
 import com.strahovka.entity.Insurance.*;
+import com.strahovka.entity.ApplicationSummary;
 import com.strahovka.entity.InsurancePolicy;
 import com.strahovka.entity.User;
 import com.strahovka.dto.ApplicationDetailDTO;
@@ -14,11 +15,14 @@ import com.strahovka.enums.PackageStatus;
 import com.strahovka.enums.PackageType;
 import com.strahovka.enums.PolicyStatus;
 import com.strahovka.enums.ClaimStatus;
-import com.strahovka.enums.UserLevel;
 import com.strahovka.repository.*;
-import jakarta.persistence.DiscriminatorValue;
+import com.strahovka.service.CatalogCache.CatalogChangedEvent;
+import com.strahovka.service.PolicyCounter.PolicyTransitionEvent;
+import com.strahovka.service.PolicyCounter.Transition;
+import com.strahovka.util.ApplicationLabels;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityManager;
@@ -27,13 +31,11 @@ import jakarta.persistence.PersistenceContext;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Set;
-import java.time.temporal.ChronoUnit;
 import java.util.stream.Collectors;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -64,6 +66,13 @@ public class InsuranceService {
     private final PasswordEncoder passwordEncoder;
     private final ObjectMapper objectMapper;
     private final AuthService authService;
+    private final TariffEngine tariffEngine;
+    private final PricingRuleEngine pricingRuleEngine;
+    private final RefundCalculator refundCalculator;
+    private final PackagePricingService packagePricingService;
+    private final ApplicationSummaryRepository applicationSummaryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BulkTransitionService bulkTransitionService;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -182,6 +191,7 @@ public class InsuranceService {
         policy.setGuide(savedGuide);
 
         insuranceRepository.save(policy);
+        catalogChanged(InsuranceGuide.class, savedGuide.getId());
         
         return savedGuide;
     }
@@ -210,12 +220,18 @@ public class InsuranceService {
         setCalculationRulesForGuide(existingGuide);
 
         insuranceRepository.save(existingPolicy);
+        catalogChanged(InsuranceGuide.class, existingGuide.getId());
         return existingGuide;
     }
 
     @Transactional
     public void deleteGuide(Long guideId) {
         insuranceRepository.deleteGuideById(guideId);
+        catalogChanged(InsuranceGuide.class, guideId);
+    }
+
+    private void catalogChanged(Class<?> entityType, Long id) {
+        eventPublisher.publishEvent(new CatalogChangedEvent(entityType, id));
     }
 
     // Package operations
@@ -251,7 +267,9 @@ public class InsuranceService {
         } else {
             insurancePackage.setCategories(new HashSet<>());
         }
-        return insurancePackageRepository.save(insurancePackage);
+        InsurancePackage savedPackage = insurancePackageRepository.save(insurancePackage);
+        catalogChanged(InsurancePackage.class, savedPackage.getId());
+        return savedPackage;
     }
 
     @Transactional
@@ -262,7 +280,10 @@ public class InsuranceService {
         existingPackage.setName(packageUpdates.getName());
         existingPackage.setDescription(packageUpdates.getDescription());
         existingPackage.setBasePrice(packageUpdates.getBasePrice());
-        existingPackage.setDiscount(packageUpdates.getDiscount());
+        if (existingPackage.getDiscount() != packageUpdates.getDiscount()) {
+            existingPackage.setDiscount(packageUpdates.getDiscount());
+            packagePricingService.applyDiscountChange(existingPackage);
+        }
         existingPackage.setActive(packageUpdates.isActive());
         existingPackage.setStatus(packageUpdates.getStatus());
 
@@ -277,12 +298,15 @@ public class InsuranceService {
                 existingPackage.setCategories(new HashSet<>(categories));
             }
         }
-        return insurancePackageRepository.save(existingPackage);
+        InsurancePackage savedPackage = insurancePackageRepository.save(existingPackage);
+        catalogChanged(InsurancePackage.class, packageId);
+        return savedPackage;
     }
 
     @Transactional
     public void deletePackage(Long id) {
         insurancePackageRepository.deleteById(id);
+        catalogChanged(InsurancePackage.class, id);
     }
 
     @Transactional(readOnly = true)
@@ -308,7 +332,9 @@ public class InsuranceService {
         insuranceCategoryRepository.findByName(category.getName()).ifPresent(existing -> {
             throw new IllegalArgumentException("Category with name '" + category.getName() + "' already exists.");
         });
-        return insuranceCategoryRepository.save(category);
+        InsuranceCategory savedCategory = insuranceCategoryRepository.save(category);
+        catalogChanged(InsuranceCategory.class, savedCategory.getId());
+        return savedCategory;
     }
 
     @Transactional
@@ -329,28 +355,26 @@ public class InsuranceService {
         if(categoryUpdates.getBasePrice() != null) existingCategory.setBasePrice(categoryUpdates.getBasePrice());
         if(categoryUpdates.getType() != null) existingCategory.setType(categoryUpdates.getType());
         
-        return insuranceCategoryRepository.save(existingCategory);
+        InsuranceCategory savedCategory = insuranceCategoryRepository.save(existingCategory);
+        catalogChanged(InsuranceCategory.class, id);
+        return savedCategory;
     }
 
     @Transactional
     public void deleteCategory(Long id) {
         insuranceCategoryRepository.deleteById(id);
+        catalogChanged(InsuranceCategory.class, id);
     }
 
     // Policy operations
-    @Transactional
-    public void recalculateUserPolicyCount(String username) {
-        User user = findUser(username);
-        long activeCount = insuranceRepository.countByUserAndStatusAndActive(user, PolicyStatus.ACTIVE, true);
-        user.setPolicyCount((int) activeCount);
-        user.setLevel(UserLevel.getLevelByPolicyCount(user.getPolicyCount()));
-        userRepository.save(user);
-        log.info("Recalculated policy count for user {}: {} active policies, new level: {}", username, activeCount, user.getLevel());
+    private void policyTransition(User user, Transition transition, int policies) {
+        if (user != null) {
+            eventPublisher.publishEvent(new PolicyTransitionEvent(user.getId(), transition, policies));
+        }
     }
 
     @Transactional(readOnly = true)
     public List<InsurancePolicy> getUserPolicies(String usernameOrEmail) {
-        recalculateUserPolicyCount(usernameOrEmail);
         return insuranceRepository.findPoliciesByUsername(usernameOrEmail);
     }
 
@@ -377,9 +401,9 @@ public class InsuranceService {
         }
         
         InsurancePolicy savedPolicy = insuranceRepository.save(policy);
-        
-        recalculateUserPolicyCount(usernameOrEmail);
-        
+        if (PolicyCounter.counts(savedPolicy)) {
+            policyTransition(user, Transition.ACTIVATED, 1);
+        }
         return savedPolicy;
     }
 
@@ -387,6 +411,7 @@ public class InsuranceService {
     public InsurancePolicy updatePolicy(Long id, InsurancePolicy policyUpdates) {
         InsurancePolicy existingPolicy = insuranceRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Policy not found with id: " + id));
+        boolean counted = PolicyCounter.counts(existingPolicy);
         
         if (policyUpdates.getName() != null) existingPolicy.setName(policyUpdates.getName());
         if (policyUpdates.getDescription() != null) existingPolicy.setDescription(policyUpdates.getDescription());
@@ -405,63 +430,36 @@ public class InsuranceService {
                .orElseThrow(() -> new EntityNotFoundException("Category for policy update (Name: " + policyUpdates.getCategory().getName() + ") not found."));
            existingPolicy.setCategory(category);
        }
-        return insuranceRepository.save(existingPolicy);
+        InsurancePolicy savedPolicy = insuranceRepository.save(existingPolicy);
+        if (!counted && PolicyCounter.counts(savedPolicy)) {
+            policyTransition(savedPolicy.getUser(), Transition.ACTIVATED, 1);
+        } else if (counted && !PolicyCounter.counts(savedPolicy)) {
+            Transition transition = switch (savedPolicy.getStatus()) {
+                case CANCELLED -> Transition.CANCELLED;
+                case EXPIRED -> Transition.EXPIRED;
+                default -> Transition.DEACTIVATED;
+            };
+            policyTransition(savedPolicy.getUser(), transition, 1);
+        }
+        return savedPolicy;
     }
 
     @Transactional
     public void deletePolicy(Long id) {
+        insuranceRepository.findById(id)
+            .filter(PolicyCounter::counts)
+            .ifPresent(policy -> policyTransition(policy.getUser(), Transition.DEACTIVATED, 1));
         insuranceRepository.deletePolicyById(id);
     }
 
     // Application operations
     private BigDecimal calculateKaskoPrice(KaskoApplication app) {
-        if (app.getCarValue() == null) return BigDecimal.ZERO;
-        BigDecimal basePrice = app.getCarValue().multiply(new BigDecimal("0.05"));
-        BigDecimal calculatedPrice = basePrice;
-        if (app.getCarYear() != null) {
-            int carAge = LocalDate.now().getYear() - app.getCarYear();
-            if (carAge > 10) calculatedPrice = calculatedPrice.add(basePrice.multiply(new BigDecimal("0.10")));
-            else if (carAge > 5) calculatedPrice = calculatedPrice.add(basePrice.multiply(new BigDecimal("0.05")));
-            }
-        if (app.getDriverExperienceYears() != null) {
-            if (app.getDriverExperienceYears() < 3) calculatedPrice = calculatedPrice.add(basePrice.multiply(new BigDecimal("0.15")));
-            else if (app.getDriverExperienceYears() < 5) calculatedPrice = calculatedPrice.add(basePrice.multiply(new BigDecimal("0.07")));
-            }
-        if (Boolean.TRUE.equals(app.getHasAntiTheftSystem())) calculatedPrice = calculatedPrice.subtract(basePrice.multiply(new BigDecimal("0.05")));
-        if (Boolean.TRUE.equals(app.getGarageParking())) calculatedPrice = calculatedPrice.subtract(basePrice.multiply(new BigDecimal("0.03")));
-        if (app.getDuration() != null && app.getDuration() != 12) {
-            calculatedPrice = calculatedPrice.divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(app.getDuration()));
-        }
-        return calculatedPrice.max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+        return tariffEngine.priceKasko(app);
     }
 
     private BigDecimal calculateOsagoPrice(OsagoApplication app) {
         if (app == null) return BigDecimal.ZERO;
-        BigDecimal baseRate = new BigDecimal("4118.00");
-        BigDecimal powerCoeff = new BigDecimal("1.0");
-        if (app.getEnginePower() != null) {
-            if (app.getEnginePower() <= 50) powerCoeff = new BigDecimal("0.6");
-            else if (app.getEnginePower() <= 70) powerCoeff = new BigDecimal("1.0");
-            else if (app.getEnginePower() <= 100) powerCoeff = new BigDecimal("1.1");
-            else if (app.getEnginePower() <= 120) powerCoeff = new BigDecimal("1.2");
-            else if (app.getEnginePower() <= 150) powerCoeff = new BigDecimal("1.4");
-            else powerCoeff = new BigDecimal("1.6");
-        }
-        BigDecimal ageExperienceCoeff = new BigDecimal("1.87");
-        if (app.getDriverExperienceYears() != null) { 
-            if (app.getDriverExperienceYears() < 1) ageExperienceCoeff = new BigDecimal("1.93");
-            else if (app.getDriverExperienceYears() < 2) ageExperienceCoeff = new BigDecimal("1.88");
-            else if (app.getDriverExperienceYears() < 3) ageExperienceCoeff = new BigDecimal("1.72");
-            else if (app.getDriverExperienceYears() < 5) ageExperienceCoeff = new BigDecimal("1.65");
-            else if (app.getDriverExperienceYears() < 10) ageExperienceCoeff = new BigDecimal("1.62");
-            else ageExperienceCoeff = new BigDecimal("1.60");
-        }
-        BigDecimal driversCoeff = Boolean.TRUE.equals(app.getIsUnlimitedDrivers()) ? new BigDecimal("2.32") : new BigDecimal("1.0");
-        BigDecimal calculatedPrice = baseRate.multiply(powerCoeff).multiply(ageExperienceCoeff).multiply(driversCoeff);
-        if (app.getDuration() != null && app.getDuration() != 12) {
-            calculatedPrice = calculatedPrice.divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(app.getDuration()));
-        }
-        return calculatedPrice.setScale(2, RoundingMode.HALF_UP);
+        return tariffEngine.priceOsago(app);
     }
 
     @Transactional
@@ -469,9 +467,7 @@ public class InsuranceService {
         User user = determineUserForApplication(application, userEmailFromAuth);
         application.setUser(user);
         application.setEmail(user.getEmail());
-        application.setStatus("PENDING");
-        application.setApplicationDate(LocalDateTime.now());
-        application.setCalculatedAmount(calculateKaskoPrice(application));
+        prepareKaskoApplication(application);
         return applicationRepository.save(application);
     }
 
@@ -480,12 +476,7 @@ public class InsuranceService {
         User user = determineUserForApplication(application, userEmailFromAuth);
         application.setUser(user);
         application.setEmail(user.getEmail());
-        application.setStatus("PENDING");
-        application.setApplicationDate(LocalDateTime.now());
-        if (application.getDriverLicenseNumber() == null || application.getDriverLicenseNumber().trim().isEmpty()) {
-            throw new IllegalArgumentException("Номер водительского удостоверения является обязательным полем");
-        }
-        application.setCalculatedAmount(calculateOsagoPrice(application));
+        prepareOsagoApplication(application);
         return applicationRepository.save(application);
     }
 
@@ -494,31 +485,72 @@ public class InsuranceService {
         User user = determineUserForApplication(application, userEmailFromAuth);
         application.setUser(user);
         application.setEmail(user.getEmail());
+        prepareTravelApplication(application);
+        return applicationRepository.save(application);
+    }
+
+    @Transactional
+    public Insurance.HealthApplication createHealthApplication(Insurance.HealthApplication application, String userEmailFromAuth) {
+        User user = determineUserForApplication(application, userEmailFromAuth);
+        application.setUser(user);
+        application.setEmail(user.getEmail());
+        prepareHealthApplication(application);
+        return applicationRepository.save(application);
+    }
+
+    @Transactional
+    public Insurance.PropertyApplication createPropertyApplication(Insurance.PropertyApplication application, String userEmailFromAuth) {
+        User user = determineUserForApplication(application, userEmailFromAuth);
+        application.setUser(user);
+        application.setEmail(user.getEmail());
+        preparePropertyApplication(application);
+        return applicationRepository.save(application);
+    }
+
+    /*
+     * The prepare* methods fill status, default dates and the price entirely in memory. They are shared by
+     * the create* methods and the dry-run quote path, which must not create users or rows.
+     */
+
+    public KaskoApplication prepareKaskoApplication(KaskoApplication application) {
         application.setStatus("PENDING");
         application.setApplicationDate(LocalDateTime.now());
-        if (application.getCalculatedAmount() == null) {
-             application.setCalculatedAmount(new BigDecimal("2500.00"));
+        application.setCalculatedAmount(calculateKaskoPrice(application));
+        return application;
+    }
+
+    public Insurance.OsagoApplication prepareOsagoApplication(Insurance.OsagoApplication application) {
+        application.setStatus("PENDING");
+        application.setApplicationDate(LocalDateTime.now());
+        if (application.getDriverLicenseNumber() == null || application.getDriverLicenseNumber().trim().isEmpty()) {
+            throw new IllegalArgumentException("Номер водительского удостоверения является обязательным полем");
         }
+        application.setCalculatedAmount(calculateOsagoPrice(application));
+        return application;
+    }
+
+    public Insurance.TravelApplication prepareTravelApplication(Insurance.TravelApplication application) {
+        application.setStatus("PENDING");
+        application.setApplicationDate(LocalDateTime.now());
         if (application.getTravelStartDate() == null) {
             application.setTravelStartDate(LocalDate.now().plusDays(7));
         }
         if (application.getTravelEndDate() == null && application.getTravelStartDate() != null) {
             application.setTravelEndDate(application.getTravelStartDate().plusDays(14));
         }
+        if (application.getCalculatedAmount() == null) {
+            application.setCalculatedAmount(pricingRuleEngine.priceTravel(application));
+        }
         application.setStartDate(application.getTravelStartDate());
         application.setEndDate(application.getTravelEndDate());
-        return applicationRepository.save(application);
+        return application;
     }
 
-    @Transactional
-    public Insurance.HealthApplication createHealthApplication(Insurance.HealthApplication application, String userEmailFromAuth) {
-        User user = determineUserForApplication(application, userEmailFromAuth);
-        application.setUser(user);
-        application.setEmail(user.getEmail());
+    public Insurance.HealthApplication prepareHealthApplication(Insurance.HealthApplication application) {
         application.setStatus("PENDING");
         application.setApplicationDate(LocalDateTime.now());
         if (application.getCalculatedAmount() == null) {
-            application.setCalculatedAmount(new BigDecimal("5000.00"));
+            application.setCalculatedAmount(pricingRuleEngine.priceHealth(application));
         }
         if (application.getStartDate() == null) {
             application.setStartDate(LocalDate.now());
@@ -526,22 +558,14 @@ public class InsuranceService {
         if (application.getEndDate() == null && application.getStartDate() != null) {
             application.setEndDate(application.getStartDate().plusYears(1));
         }
-        return applicationRepository.save(application);
+        return application;
     }
 
-    @Transactional
-    public Insurance.PropertyApplication createPropertyApplication(Insurance.PropertyApplication application, String userEmailFromAuth) {
-        User user = determineUserForApplication(application, userEmailFromAuth);
-        application.setUser(user);
-        application.setEmail(user.getEmail());
+    public Insurance.PropertyApplication preparePropertyApplication(Insurance.PropertyApplication application) {
         application.setStatus("PENDING");
         application.setApplicationDate(LocalDateTime.now());
         if (application.getCalculatedAmount() == null) {
-            if (application.getPropertyValue() != null && application.getPropertyValue().compareTo(BigDecimal.ZERO) > 0) {
-                application.setCalculatedAmount(application.getPropertyValue().multiply(new BigDecimal("0.005")).setScale(2, RoundingMode.HALF_UP));
-            } else {
-                application.setCalculatedAmount(new BigDecimal("3000.00"));
-            }
+            application.setCalculatedAmount(pricingRuleEngine.priceProperty(application));
         }
         if (application.getStartDate() == null) {
             application.setStartDate(LocalDate.now());
@@ -549,7 +573,7 @@ public class InsuranceService {
         if (application.getEndDate() == null && application.getStartDate() != null) {
             application.setEndDate(application.getStartDate().plusYears(1));
         }
-        return applicationRepository.save(application);
+        return application;
     }
 
     // Payment Processing Logic
@@ -566,6 +590,18 @@ public class InsuranceService {
     }
     
     private InsurancePolicy setupPolicyFromApplication(BaseApplication application, User user, String policyName, String policyDescriptionPrefix, InsuranceCategory category) {
+        InsurancePolicy policy = buildPolicyFromApplication(application, user, policyName, policyDescriptionPrefix, category, null);
+        InsurancePolicy savedPolicy = insuranceRepository.save(policy);
+        policyTransition(user, Transition.ACTIVATED, 1);
+        return savedPolicy;
+    }
+
+    /**
+     * Builds an unsaved policy for the application. When {@code insurancePackage} is null the owning
+     * package, if any, is looked up through the application's package link.
+     */
+    private InsurancePolicy buildPolicyFromApplication(BaseApplication application, User user, String policyName, String policyDescriptionPrefix,
+                                                       InsuranceCategory category, InsurancePackage insurancePackage) {
         InsurancePolicy policy = new InsurancePolicy();
         policy.setUser(user);
         policy.setName(policyName); 
@@ -590,7 +626,10 @@ public class InsuranceService {
         policy.setStatus(PolicyStatus.ACTIVE);
 
         String appTypeDiscriminator = getApplicationTypeFromDiscriminator(application);
-        if (appTypeDiscriminator != null && application.getId() != null) {
+        if (insurancePackage != null) {
+            policy.setPackageName(insurancePackage.getName());
+            policy.setPackageDiscount(insurancePackage.getDiscount());
+        } else if (appTypeDiscriminator != null && application.getId() != null) {
             packageApplicationLinkRepository.findByApplicationIdAndApplicationType(application.getId(), appTypeDiscriminator)
                 .ifPresent(link -> {
                     insurancePackageRepository.findById(link.getPackageId()).ifPresent(pkg -> {
@@ -599,10 +638,7 @@ public class InsuranceService {
                     });
                 });
         }
-        
-        InsurancePolicy savedPolicy = insuranceRepository.save(policy);
-        recalculateUserPolicyCount(user.getEmail());
-        return savedPolicy;
+        return policy;
     }
     
     private <T extends BaseApplication> InsurancePolicy processGenericPayment(
@@ -724,6 +760,13 @@ public class InsuranceService {
         return policy;
     }
 
+    /** All of the user's applications, every type, newest first, from the application summary. */
+    @Transactional(readOnly = true)
+    public List<ApplicationSummary> getApplicationSummaries(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return applicationSummaryRepository.findByUserIdOrderByApplicationDateDescApplicationIdDesc(user.getId());
+    }
+
     // Retrieval methods for different application types
     @Transactional(readOnly = true)
     public List<KaskoApplication> getKaskoApplications(Authentication authentication) {
@@ -872,32 +915,10 @@ public class InsuranceService {
             throw new IllegalStateException("Policy cannot be cancelled. Current status: " + policy.getStatus() + ". Policy must be ACTIVE.");
         }
 
-        BigDecimal refundAmount = BigDecimal.ZERO;
-        long daysSinceActivation = ChronoUnit.DAYS.between(policy.getStartDate(), LocalDate.now());
-        if (daysSinceActivation < 0) daysSinceActivation = 0; 
-
-        long totalPolicyDurationDays = ChronoUnit.DAYS.between(policy.getStartDate(), policy.getEndDate());
-        if (totalPolicyDurationDays <= 0) throw new IllegalStateException("Policy duration is invalid.");
-
-        if (daysSinceActivation <= 14) {
-            refundAmount = policy.getPrice();
-        } else {
-            BigDecimal policyPrice = policy.getPrice();
-            if (policyPrice == null) throw new IllegalStateException("Policy price is not set.");
-            
-            BigDecimal dailyRate = policyPrice.divide(BigDecimal.valueOf(totalPolicyDurationDays), 10, RoundingMode.HALF_UP);
-            long remainingDays = totalPolicyDurationDays - daysSinceActivation;
-            
-            if (remainingDays > 0) {
-                BigDecimal proRataRefund = dailyRate.multiply(BigDecimal.valueOf(remainingDays));
-                BigDecimal adminFeePercentage = new BigDecimal("0.20");
-                BigDecimal adminFee = proRataRefund.multiply(adminFeePercentage);
-                refundAmount = proRataRefund.subtract(adminFee);
-            }
-        }
-
-        refundAmount = refundAmount.max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal refundAmount = refundCalculator.refund(policy.getPrice(), policy.getStartDate(), policy.getEndDate(),
+                LocalDate.now(), RefundCalculator.RefundTerms.DEFAULT);
 
+        boolean counted = PolicyCounter.counts(policy);
         policy.setStatus(PolicyStatus.CANCELLED);
         policy.setActive(false);
         policy.setCancellationReason(reason);
@@ -905,14 +926,12 @@ public class InsuranceService {
         policy.setRefundAmount(refundAmount);
         insuranceRepository.save(policy);
 
-        List<BaseApplication> relatedApplications = applicationRepository.findByPolicyId(policyId);
-        for (BaseApplication app : relatedApplications) {
-            app.setStatus("CANCELLED");
-            applicationRepository.save(app);
-            log.info("Updated status of related application ID {} to CANCELLED due to policy {} cancellation.", app.getId(), policyId);
-        }
+        int cancelledApplications = bulkTransitionService.cancelApplicationsOfPolicies(List.of(policyId));
+        log.info("Cancelled {} related applications due to policy {} cancellation.", cancelledApplications, policyId);
 
-        recalculateUserPolicyCount(username);
+        if (counted) {
+            policyTransition(user, Transition.CANCELLED, 1);
+        }
 
         Map<String, Object> result = new HashMap<>();
         result.put("message", "Полис успешно отменен. Сумма возврата: " + refundAmount.toPlainString() + " ₽");
@@ -1017,6 +1036,7 @@ public class InsuranceService {
 
         insurancePackage.setUser(packageUser);
         List<BaseApplication> createdApplications = new ArrayList<>();
+        List<String> linkTypes = new ArrayList<>();
         Set<String> selectedTypes = applicationItems.stream()
             .map(item -> {
                 String type = item.getType();
@@ -1074,11 +1094,10 @@ public class InsuranceService {
                     kaskoApp.setEmail(packageUser.getEmail());
                     kaskoApp.setApplicationDate(LocalDateTime.now());
                     kaskoApp.setStatus("PENDING_PACKAGE");
-                    kaskoApp.setCalculatedAmount(calculateKaskoPrice(kaskoApp));
                     if(kaskoApp.getEndDate() == null && kaskoApp.getDuration() != null && kaskoApp.getStartDate() != null) {
                         kaskoApp.setEndDate(kaskoApp.getStartDate().plusMonths(kaskoApp.getDuration()));
                     }
-                    newApplication = applicationRepository.save(kaskoApp);
+                    newApplication = kaskoApp;
                     actualApplicationTypeForLink = "KASKO";
                     break;
 
@@ -1105,11 +1124,10 @@ public class InsuranceService {
                     osagoApp.setEmail(packageUser.getEmail());
                     osagoApp.setApplicationDate(LocalDateTime.now());
                     osagoApp.setStatus("PENDING_PACKAGE");
-                    osagoApp.setCalculatedAmount(calculateOsagoPrice(osagoApp));
                      if(osagoApp.getEndDate() == null && osagoApp.getDuration() != null && osagoApp.getStartDate() != null) {
                         osagoApp.setEndDate(osagoApp.getStartDate().plusMonths(osagoApp.getDuration()));
                     }
-                    newApplication = applicationRepository.save(osagoApp);
+                    newApplication = osagoApp;
                     actualApplicationTypeForLink = "OSAGO";
                     break;
                 case "TRAVEL":
@@ -1119,9 +1137,6 @@ public class InsuranceService {
                     travelApp.setApplicationDate(LocalDateTime.now());
                     travelApp.setStatus("PENDING_PACKAGE");
 
-                    if (travelApp.getCalculatedAmount() == null) {
-                        travelApp.setCalculatedAmount(new BigDecimal("2500.00"));
-                    }
                     if (travelApp.getTravelStartDate() == null) {
                         travelApp.setTravelStartDate(LocalDate.now().plusDays(7));
                     }
@@ -1131,7 +1146,7 @@ public class InsuranceService {
                     travelApp.setStartDate(travelApp.getTravelStartDate());
                     travelApp.setEndDate(travelApp.getTravelEndDate());
 
-                    newApplication = applicationRepository.save(travelApp);
+                    newApplication = travelApp;
                     actualApplicationTypeForLink = "TRAVEL";
                     break;
 
@@ -1142,16 +1157,13 @@ public class InsuranceService {
                     healthApp.setApplicationDate(LocalDateTime.now());
                     healthApp.setStatus("PENDING_PACKAGE");
 
-                    if (healthApp.getCalculatedAmount() == null) {
-                        healthApp.setCalculatedAmount(new BigDecimal("5000.00"));
-                    }
                     if (healthApp.getStartDate() == null) {
                         healthApp.setStartDate(LocalDate.now());
                     }
                     if (healthApp.getEndDate() == null && healthApp.getStartDate() != null) {
                         healthApp.setEndDate(healthApp.getStartDate().plusYears(1));
                     }
-                    newApplication = applicationRepository.save(healthApp);
+                    newApplication = healthApp;
                     actualApplicationTypeForLink = "HEALTH";
                     break;
 
@@ -1162,20 +1174,13 @@ public class InsuranceService {
                     propertyApp.setApplicationDate(LocalDateTime.now());
                     propertyApp.setStatus("PENDING_PACKAGE");
 
-                    if (propertyApp.getCalculatedAmount() == null) {
-                        if (propertyApp.getPropertyValue() != null && propertyApp.getPropertyValue().compareTo(BigDecimal.ZERO) > 0) {
-                            propertyApp.setCalculatedAmount(propertyApp.getPropertyValue().multiply(new BigDecimal("0.005")).setScale(2, RoundingMode.HALF_UP));
-                        } else {
-                            propertyApp.setCalculatedAmount(new BigDecimal("3000.00"));
-                        }
-                    }
                     if (propertyApp.getStartDate() == null) {
                         propertyApp.setStartDate(LocalDate.now());
                     }
                     if (propertyApp.getEndDate() == null && propertyApp.getStartDate() != null) {
                         propertyApp.setEndDate(propertyApp.getStartDate().plusYears(1));
                     }
-                    newApplication = applicationRepository.save(propertyApp);
+                    newApplication = propertyApp;
                     actualApplicationTypeForLink = "PROPERTY";
                     break;
                 default:
@@ -1185,33 +1190,29 @@ public class InsuranceService {
 
             if (newApplication != null && actualApplicationTypeForLink != null) {
                 createdApplications.add(newApplication);
-                PackageApplicationLink link = PackageApplicationLink.builder()
-                    .insurancePackage(insurancePackage)
-                    .applicationId(newApplication.getId())
-                    .applicationType(actualApplicationTypeForLink)
-                    .build();
-                link.setPackageId(insurancePackage.getId());
-                insurancePackage.getApplicationLinks().add(link);
+                linkTypes.add(actualApplicationTypeForLink);
             }
         }
-        
-        BigDecimal totalPackageAmount = BigDecimal.ZERO;
-        for(BaseApplication app : createdApplications) {
-            if (app.getCalculatedAmount() != null) {
-                totalPackageAmount = totalPackageAmount.add(app.getCalculatedAmount());
-            }
+
+        PackagePricingService.PackageQuote quote = packagePricingService.price(createdApplications, insurancePackage.getDiscount());
+        List<BaseApplication> savedApplications = applicationRepository.saveAll(createdApplications);
+        for (int i = 0; i < savedApplications.size(); i++) {
+            PackageApplicationLink link = PackageApplicationLink.builder()
+                .insurancePackage(insurancePackage)
+                .applicationId(savedApplications.get(i).getId())
+                .applicationType(linkTypes.get(i))
+                .build();
+            link.setPackageId(insurancePackage.getId());
+            insurancePackage.getApplicationLinks().add(link);
         }
-        insurancePackage.setOriginalTotalAmount(totalPackageAmount);
-        BigDecimal discountAmount = totalPackageAmount.multiply(BigDecimal.valueOf(insurancePackage.getDiscount()).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP));
-        insurancePackage.setFinalAmount(totalPackageAmount.subtract(discountAmount).setScale(2, RoundingMode.HALF_UP));
+        packagePricingService.applyTo(insurancePackage, quote);
 
         insurancePackage.setStatus(PackageStatus.PENDING);
         return insurancePackageRepository.save(insurancePackage);
     }
 
     private String getApplicationTypeFromDiscriminator(BaseApplication application) {
-        DiscriminatorValue discriminatorValue = application.getClass().getAnnotation(DiscriminatorValue.class);
-        return discriminatorValue != null ? discriminatorValue.value() : null;
+        return ApplicationLabels.type(application);
     }
 
     @Transactional(readOnly = true)
@@ -1219,99 +1220,32 @@ public class InsuranceService {
         User user = findUser(usernameOrEmail);
         List<InsurancePackage> packages = insurancePackageRepository.findByUserEmail(user.getEmail());
 
+        if (packages.isEmpty()) {
+            return List.of();
+        }
+
+        // three set-based queries instead of one polymorphic lookup per linked application
+        Map<Long, List<PackageApplicationLink>> linksByPackage = packageApplicationLinkRepository
+            .findByPackageIdIn(packages.stream().map(InsurancePackage::getId).collect(Collectors.toList())).stream()
+            .collect(Collectors.groupingBy(PackageApplicationLink::getPackageId));
+        Map<Long, BaseApplication> applicationsById = applicationRepository
+            .findAllById(linksByPackage.values().stream()
+                .flatMap(List::stream)
+                .map(PackageApplicationLink::getApplicationId)
+                .collect(Collectors.toSet())).stream()
+            .collect(Collectors.toMap(BaseApplication::getId, app -> app));
+
         return packages.stream().map(pkg -> {
-            List<ApplicationDetailDTO> applicationDetails = pkg.getApplicationLinks().stream()
-                .map(link -> applicationRepository.findById(link.getApplicationId())
-                    .map(app -> {
-                        if (!app.getUser().getId().equals(user.getId())) {
-                            log.warn("Data integrity issue: Package ID {} (user {}) contains link to Application ID {} (user {}) which belongs to a different user ({}). Skipping application.",
-                                     pkg.getId(), user.getEmail(), app.getId(), app.getUser().getEmail(), app.getUser().getId());
-                            return null;
-                        }
-
-                        String actualAppType = getApplicationTypeFromDiscriminator(app);
-
-                        if (actualAppType == null || !link.getApplicationType().equals(actualAppType)) {
-                            log.warn("Data integrity issue: Package ID {} for Application ID {} has link type '{}' but actual application type is '{}'. Using actual type: {}.",
-                                     pkg.getId(), app.getId(), link.getApplicationType(), actualAppType, actualAppType);
-                            if (actualAppType == null) {
-                                log.error("Critical data issue: Could not determine actual application type for Application ID {}. Linked type was {}. Skipping.", app.getId(), link.getApplicationType());
-                                return null;
-                            }
-                        }
-
-                        log.info("Including application in package: AppID={}, DeterminedType={}, User={}, PackageID={}", 
-                                 app.getId(), actualAppType, user.getEmail(), pkg.getId());
-                        
-                        String displayName = actualAppType != null ? actualAppType : "Тип не определен";
-
-                        if (app instanceof KaskoApplication) {
-                            KaskoApplication kaskoApp = (KaskoApplication) app;
-                            String carMake = kaskoApp.getCarMake();
-                            String carModel = kaskoApp.getCarModel();
-                            if (carMake != null && !carMake.isEmpty() && carModel != null && !carModel.isEmpty()) {
-                                displayName = "КАСКО: " + carMake + " " + carModel;
-                            } else {
-                                displayName = "КАСКО: (детали не указаны)";
-                            }
-                        } else if (app instanceof OsagoApplication) {
-                            OsagoApplication osagoApp = (OsagoApplication) app;
-                            String carMake = osagoApp.getCarMake();
-                            String carModel = osagoApp.getCarModel();
-                            if (carMake != null && !carMake.isEmpty() && carModel != null && !carModel.isEmpty()) {
-                                displayName = "ОСАГО: " + carMake + " " + carModel;
-                            } else {
-                                displayName = "ОСАГО: (детали не указаны)";
-                            }
-                        } else if (app instanceof HealthApplication) {
-                            HealthApplication healthApp = (HealthApplication) app;
-                            String coverageType = healthApp.getCoverageType();
-                            BigDecimal coverageAmount = healthApp.getCoverageAmount();
-                            String amountStr = (coverageAmount != null) ? coverageAmount.toPlainString() : "N/A";
-                            if (coverageType != null && !coverageType.isEmpty()) {
-                                displayName = "Здоровье: " + coverageType + " (до " + amountStr + "\u20BD)";
-                            } else {
-                                displayName = "Здоровье: " + user.getFirstName() + " " + user.getLastName();
-                            }
-                        } else if (app instanceof TravelApplication) {
-                            TravelApplication travelApp = (TravelApplication) app;
-                            String destination = travelApp.getDestinationCountry();
-                            String purpose = travelApp.getPurposeOfTrip();
-                            if (destination != null && !destination.isEmpty() && purpose != null && !purpose.isEmpty()) {
-                                displayName = "Путешествия: " + destination + " (" + purpose + ")";
-                            } else if (destination != null && !destination.isEmpty()) {
-                                displayName = "Путешествия: " + destination;
-                            } else {
-                                displayName = "Путешествия: (детали не указаны)";
-                            }
-                        } else if (app instanceof PropertyApplication) {
-                            PropertyApplication propertyApp = (PropertyApplication) app;
-                            String propertyType = propertyApp.getPropertyType();
-                            String address = propertyApp.getAddress();
-                            if (propertyType != null && !propertyType.isEmpty() && address != null && !address.isEmpty()) {
-                                displayName = "Недвижимость: " + propertyType + " (" + address + ")";
-                            } else if (propertyType != null && !propertyType.isEmpty()) {
-                                displayName = "Недвижимость: " + propertyType;
-                            } else {
-                                displayName = "Недвижимость: (детали не указаны)";
-                            }
-                        }
-                        
-                        return ApplicationDetailDTO.builder()
-                            .id(app.getId())
-                            .applicationType(actualAppType)
-                            .status(app.getStatus())
-                            .startDate(app.getStartDate())
-                            .endDate(app.getEndDate())
-                            .calculatedAmount(app.getCalculatedAmount())
-                            .displayName(displayName)
-                            .build();
-                    })
-                    .orElseGet(() -> {
-                        log.warn("Data integrity issue: Package ID {} contains link to non-existent Application ID {}. Type in link was {}.", 
+            List<ApplicationDetailDTO> applicationDetails = linksByPackage.getOrDefault(pkg.getId(), List.of()).stream()
+                .map(link -> {
+                    BaseApplication app = applicationsById.get(link.getApplicationId());
+                    if (app == null) {
+                        log.warn("Data integrity issue: Package ID {} contains link to non-existent Application ID {}. Type in link was {}.",
                                  pkg.getId(), link.getApplicationId(), link.getApplicationType());
                         return null;
-                    }))
+                    }
+                    return toApplicationDetail(pkg, link, app, user);
+                })
                 .filter(java.util.Objects::nonNull)
                 .collect(Collectors.toList());
 
@@ -1335,6 +1269,37 @@ public class InsuranceService {
         }).collect(Collectors.toList());
     }
 
+    private ApplicationDetailDTO toApplicationDetail(InsurancePackage pkg, PackageApplicationLink link, BaseApplication app, User user) {
+        if (!app.getUser().getId().equals(user.getId())) {
+            log.warn("Data integrity issue: Package ID {} (user {}) contains link to Application ID {} (user {}) which belongs to a different user ({}). Skipping application.",
+                     pkg.getId(), user.getEmail(), app.getId(), app.getUser().getEmail(), app.getUser().getId());
+            return null;
+        }
+
+        String actualAppType = getApplicationTypeFromDiscriminator(app);
+
+        if (actualAppType == null || !link.getApplicationType().equals(actualAppType)) {
+            log.warn("Data integrity issue: Package ID {} for Application ID {} has link type '{}' but actual application type is '{}'. Using actual type: {}.",
+                     pkg.getId(), app.getId(), link.getApplicationType(), actualAppType, actualAppType);
+            if (actualAppType == null) {
+                log.error("Critical data issue: Could not determine actual application type for Application ID {}. Linked type was {}. Skipping.", app.getId(), link.getApplicationType());
+                return null;
+            }
+        }
+
+        String displayName = ApplicationLabels.displayName(app, user.getFirstName() + " " + user.getLastName());
+
+        return ApplicationDetailDTO.builder()
+            .id(app.getId())
+            .applicationType(actualAppType)
+            .status(app.getStatus())
+            .startDate(app.getStartDate())
+            .endDate(app.getEndDate())
+            .calculatedAmount(app.getCalculatedAmount())
+            .displayName(displayName)
+            .build();
+    }
+
     @Transactional
     public void processPackagePayment(Long packageId, String usernameOrEmailFromController) {
         User user = findUser(usernameOrEmailFromController);
@@ -1351,10 +1316,20 @@ public class InsuranceService {
 
         log.info("Processing payment for package ID: {}, User: {}", packageId, usernameOrEmailFromController);
 
-        List<BaseApplication> applicationsToProcess = insurancePackage.getApplicationLinks().stream()
-            .map(link -> applicationRepository.findById(link.getApplicationId())
-                .orElseThrow(() -> new IllegalStateException("Application with ID " + link.getApplicationId() + " linked in package " + packageId + " not found.")))
+        List<Long> linkedApplicationIds = insurancePackage.getApplicationLinks().stream()
+            .map(PackageApplicationLink::getApplicationId)
             .collect(Collectors.toList());
+        Map<Long, BaseApplication> applicationsById = applicationRepository.findAllById(linkedApplicationIds).stream()
+            .collect(Collectors.toMap(BaseApplication::getId, app -> app));
+        List<BaseApplication> applicationsToProcess = new ArrayList<>(linkedApplicationIds.size());
+        for (Long applicationId : linkedApplicationIds) {
+            BaseApplication app = applicationsById.get(applicationId);
+            if (app == null) {
+                throw new IllegalStateException("Application with ID " + applicationId + " linked in package " + packageId + " not found.");
+            }
+            applicationsToProcess.add(app);
+        }
+        List<InsurancePolicy> policiesToCreate = new ArrayList<>();
 
         if (applicationsToProcess.isEmpty()) {
             log.warn("Package ID: {} has no applications to process. Marking as PAID.", packageId);
@@ -1415,15 +1390,20 @@ public class InsuranceService {
                     continue;
                 }
 
-                InsurancePolicy createdPolicy = setupPolicyFromApplication(app, user, policyName, policyDescriptionPrefix, category);
-                insuranceRepository.save(createdPolicy);
-                log.info("Policy ID {} created for application ID {} in package {}.", createdPolicy.getId(), app.getId(), packageId);
+                policiesToCreate.add(buildPolicyFromApplication(app, user, policyName, policyDescriptionPrefix, category, insurancePackage));
 
             } catch (Exception e) {
                 log.error("Error creating policy for application ID {} in package {}: {}", app.getId(), packageId, e.getMessage(), e);
             }
         }
 
+        if (!policiesToCreate.isEmpty()) {
+            // sequence ids: the inserts are flushed as one JDBC batch instead of a round trip per policy
+            insuranceRepository.saveAll(policiesToCreate);
+            policyTransition(user, Transition.ACTIVATED, policiesToCreate.size());
+            log.info("{} policies created for package {}.", policiesToCreate.size(), packageId);
+        }
+
         insurancePackage.setStatus(PackageStatus.COMPLETED);
         insurancePackageRepository.save(insurancePackage);
         log.info("Package ID {} status updated to PAID (now COMPLETED). Payment processing complete.", packageId);
@@ -1446,18 +1426,7 @@ public class InsuranceService {
             throw new IllegalStateException("Cannot cancel a completed package. Please cancel individual policies instead.");
         }
 
-        if (insurancePackage.getApplicationLinks() != null) {
-            for (PackageApplicationLink link : insurancePackage.getApplicationLinks()) {
-                BaseApplication application = applicationRepository.findById(link.getApplicationId())
-                    .orElse(null);
-                if (application != null && 
-                    ("PENDING".equals(application.getStatus()) || 
-                     "PENDING_PAYMENT".equals(application.getStatus()))) {
-                    application.setStatus("CANCELLED");
-                    applicationRepository.save(application);
-                }
-            }
-        }
+        bulkTransitionService.cancelPendingApplicationsOfPackages(List.of(packageId));
 
         insurancePackage.setStatus(PackageStatus.CANCELLED);
         return insurancePackageRepository.save(insurancePackage);
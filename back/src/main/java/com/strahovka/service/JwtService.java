@@ -1,17 +1,21 @@
 package com.strahovka.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import com.strahovka.entity.User;
 import com.strahovka.repository.UserRepository;
 import jakarta.annotation.PostConstruct;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -21,6 +25,11 @@ import java.nio.charset.StandardCharsets;
 
 @Service
 public class JwtService {
+    /** Signed user id, role and {@link TokenVersionService token version}; trusted until expiry in stateless mode. */
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
@@ -30,16 +39,32 @@ public class JwtService {
     @Value("${jwt.refresh-token.expiration}")
     private long refreshExpiration;
 
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    @Value("${jwt.claims-cache.max-ttl:10m}")
+    private Duration claimsCacheMaxTtl;
+
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
     private SecretKey key;
+    /** Immutable and thread-safe; built once instead of per parse. */
+    private JwtParser parser;
+    private VerifiedTokenCache verifiedTokens;
 
-    public JwtService(UserRepository userRepository) {
+    public JwtService(UserRepository userRepository, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.meterRegistry = meterRegistry;
     }
 
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.verifiedTokens = new VerifiedTokenCache(claimsCacheMaxSize, claimsCacheMaxTtl);
+        this.verifiedTokens.monitor(meterRegistry, "jwt.claims");
     }
 
     public String extractUsername(String token) {
@@ -51,41 +76,64 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseClaims(token);
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifies signature and expiry once per distinct token and returns all claims; repeated tokens are served
+     * from {@link VerifiedTokenCache}. Throws {@link io.jsonwebtoken.JwtException} for an invalid token.
+     */
+    public Claims parseClaims(String token) {
+        return verifiedTokens.get(token, this::extractAllClaims);
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public Boolean isTokenValid(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            return isTokenValid(parseClaims(token), userDetails);
         } catch (Exception e) {
             return false;
         }
     }
 
+    /** Same check on claims already returned by {@link #parseClaims(String)}. */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject()) && !isTokenExpired(claims);
+    }
+
     public String generateToken(String username) {
         return generateToken(new HashMap<>(), username);
     }
 
-    public String generateToken(Map<String, Object> extraClaims, String username) {
-        return buildToken(extraClaims, username, jwtExpiration);
+    public String generateToken(User user) {
+        return generateToken(userClaims(user), user.getEmail());
+    }
+
+    /** Lifetime of the opaque refresh tokens of {@link RefreshTokenStore}, in milliseconds. */
+    public long getRefreshExpiration() {
+        return refreshExpiration;
     }
 
-    public String generateRefreshToken(String username) {
-        return buildToken(new HashMap<>(), username, refreshExpiration);
+    private Map<String, Object> userClaims(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        if (user.getRole() != null) claims.put(CLAIM_ROLE, user.getRole().name());
+        claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion() != null ? user.getTokenVersion() : 0);
+        return claims;
+    }
+
+    public String generateToken(Map<String, Object> extraClaims, String username) {
+        return buildToken(extraClaims, username, jwtExpiration);
     }
 
     private String buildToken(Map<String, Object> extraClaims, String username, long expiration) {
@@ -0,0 +1,90 @@
+package com.strahovka.service;
+
+import com.strahovka.entity.Insurance.BaseApplication;
+import com.strahovka.entity.Insurance.HealthApplication;
+import com.strahovka.entity.Insurance.InsurancePackage;
+import com.strahovka.entity.Insurance.KaskoApplication;
+import com.strahovka.entity.Insurance.OsagoApplication;
+import com.strahovka.entity.Insurance.PropertyApplication;
+import com.strahovka.entity.Insurance.TravelApplication;
+import com.strahovka.util.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Prices the items of an insurance package and applies the package discount once.
+ * <p>
+ * All items are priced in one parallel pass through the same per-type functions as single applications
+ * ({@link TariffEngine} for KASKO/OSAGO, {@link PricingRuleEngine} for the rest). The package keeps its
+ * original total, so a discount change recomputes the final amount from it without re-pricing the items.
+ */
+@Service
+@RequiredArgsConstructor
+public class PackagePricingService {
+
+    private final TariffEngine tariffEngine;
+    private final PricingRuleEngine pricingRuleEngine;
+
+    /** Item amounts (null when an item has no price), their sum and the discounted final amount. */
+    public record PackageQuote(List<BigDecimal> itemAmounts, BigDecimal originalTotal, int discount, BigDecimal finalAmount) {
+    }
+
+    /**
+     * Prices every application in parallel, stores the result in its {@code calculatedAmount}
+     * and returns the package totals.
+     */
+    public PackageQuote price(List<? extends BaseApplication> applications, int discount) {
+        BigDecimal[] amounts = new BigDecimal[applications.size()];
+        IntStream.range(0, amounts.length).parallel().forEach(i -> {
+            BaseApplication application = applications.get(i);
+            amounts[i] = priceItem(application);
+            application.setCalculatedAmount(amounts[i]);
+        });
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : amounts) {
+            if (amount != null) total = total.add(amount);
+        }
+        return new PackageQuote(Collections.unmodifiableList(Arrays.asList(amounts)), total, discount, applyDiscount(total, discount));
+    }
+
+    /**
+     * KASKO and OSAGO are always priced by tariff; TRAVEL, HEALTH and PROPERTY keep a client-supplied amount.
+     */
+    public BigDecimal priceItem(BaseApplication application) {
+        if (application instanceof KaskoApplication kasko) return tariffEngine.priceKasko(kasko);
+        if (application instanceof OsagoApplication osago) return tariffEngine.priceOsago(osago);
+        if (application.getCalculatedAmount() != null) return application.getCalculatedAmount();
+        if (application instanceof TravelApplication travel) return pricingRuleEngine.priceTravel(travel);
+        if (application instanceof HealthApplication health) return pricingRuleEngine.priceHealth(health);
+        if (application instanceof PropertyApplication property) return pricingRuleEngine.priceProperty(property);
+        throw new IllegalArgumentException("Unsupported application type: " + application.getClass().getSimpleName());
+    }
+
+    /** Stores the quote totals on the package. */
+    public void applyTo(InsurancePackage insurancePackage, PackageQuote quote) {
+        insurancePackage.setOriginalTotalAmount(quote.originalTotal());
+        insurancePackage.setFinalAmount(quote.finalAmount());
+    }
+
+    /** Recomputes the final amount from the stored total after a discount change; items are not re-priced. */
+    public void applyDiscountChange(InsurancePackage insurancePackage) {
+        if (insurancePackage.getOriginalTotalAmount() != null) {
+            insurancePackage.setFinalAmount(applyDiscount(insurancePackage.getOriginalTotalAmount(), insurancePackage.getDiscount()));
+        }
+    }
+
+    public static BigDecimal applyDiscount(BigDecimal totalAmount, int discount) {
+        if (discount >= 0 && discount <= 100 && Money.isExact(totalAmount)) {
+            return Money.of(totalAmount).percent(100 - discount).toBigDecimal();
+        }
+        BigDecimal discountAmount = totalAmount.multiply(BigDecimal.valueOf(discount).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP));
+        return totalAmount.subtract(discountAmount).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,33 @@
+package com.strahovka.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodic safety net for the incrementally maintained policy counts; see {@link PolicyCounter}.
+ */
+@Component
+@RequiredArgsConstructor
+public class PolicyCountReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PolicyCountReconciliationJob.class);
+
+    private final PolicyCounter policyCounter;
+
+    @Scheduled(cron = "${policies.count-reconciliation.cron:0 0 3 * * *}")
+    public void run() {
+        try {
+            int repaired = policyCounter.reconcileAll();
+            if (repaired > 0) {
+                log.warn("Policy count reconciliation repaired {} users", repaired);
+            } else {
+                log.info("Policy count reconciliation found no drift");
+            }
+        } catch (RuntimeException e) {
+            log.error("Policy count reconciliation failed", e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.strahovka.service;
+
+import com.strahovka.entity.InsurancePolicy;
+import com.strahovka.enums.PolicyStatus;
+import com.strahovka.enums.UserLevel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains {@code users.policy_count} and the loyalty level derived from it.
+ * <p>
+ * A user counts the policies that are ACTIVE and flagged active. Services publish a {@link PolicyTransitionEvent}
+ * when a policy enters or leaves that state. The listener runs inside the publishing transaction and applies
+ * the change as one atomic {@code UPDATE}, with the level recomputed in the same statement. The JPA mapping of
+ * both columns is read-only, so a stale {@code User} in the persistence context cannot overwrite them.
+ * {@link #reconcileAll()} recounts every user from {@code insurance_policies} and repairs any drift.
+ */
+@Component
+@RequiredArgsConstructor
+public class PolicyCounter {
+
+    public enum Transition {
+        ACTIVATED(1), CANCELLED(-1), EXPIRED(-1), DEACTIVATED(-1);
+
+        private final int delta;
+
+        Transition(int delta) {
+            this.delta = delta;
+        }
+    }
+
+    /** {@code policies} policies of one user changed state in the current transaction. */
+    public record PolicyTransitionEvent(Long userId, Transition transition, int policies) {
+    }
+
+    /** One bulk transition: number of policies per user id that changed state in the current transaction. */
+    public record PolicyBatchTransitionEvent(Transition transition, Map<Long, Integer> policiesByUser) {
+    }
+
+    private static final String APPLY_DELTA =
+            "UPDATE users SET policy_count = GREATEST(COALESCE(policy_count, 0) + ?, 0), " +
+            "level = " + levelCase("GREATEST(COALESCE(policy_count, 0) + ?, 0)") + " WHERE id = ?";
+
+    private static final String RECONCILE = """
+            UPDATE users u SET policy_count = c.active_count, level = %s
+            FROM (SELECT u2.id, COUNT(p.id) AS active_count
+                  FROM users u2
+                  LEFT JOIN insurance_policies p ON p.user_id = u2.id AND p.status = 'ACTIVE' AND p.active
+                  GROUP BY u2.id) c
+            WHERE u.id = c.id
+              AND (u.policy_count IS DISTINCT FROM c.active_count OR u.level IS DISTINCT FROM %s)
+            """.formatted(levelCase("c.active_count"), levelCase("c.active_count"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public static boolean counts(InsurancePolicy policy) {
+        return policy.getUser() != null && policy.isActive() && policy.getStatus() == PolicyStatus.ACTIVE;
+    }
+
+    @EventListener
+    public void onTransition(PolicyTransitionEvent event) {
+        if (event.userId() == null || event.policies() == 0) return;
+        int delta = event.transition().delta * event.policies();
+        jdbcTemplate.update(APPLY_DELTA, delta, delta, event.userId());
+    }
+
+    @EventListener
+    public void onBatchTransition(PolicyBatchTransitionEvent event) {
+        List<Object[]> args = new ArrayList<>(event.policiesByUser().size());
+        event.policiesByUser().forEach((userId, policies) -> {
+            int delta = event.transition().delta * policies;
+            args.add(new Object[]{delta, delta, userId});
+        });
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(APPLY_DELTA, args);
+        }
+    }
+
+    /** Recounts active policies for all users and returns how many users had drifted. */
+    @Transactional
+    public int reconcileAll() {
+        return jdbcTemplate.update(RECONCILE);
+    }
+
+    /** SQL CASE mapping a policy count expression to a {@link UserLevel} name, highest threshold first. */
+    private static String levelCase(String count) {
+        UserLevel[] levels = UserLevel.values();
+        StringBuilder sql = new StringBuilder("CASE");
+        for (int i = levels.length - 1; i > 0; i--) {
+            sql.append(" WHEN ").append(count).append(" >= ").append(levels[i].getRequiredPolicies())
+               .append(" THEN '").append(levels[i].name()).append('\'');
+        }
+        return sql.append(" ELSE '").append(levels[0].name()).append("' END").toString();
+    }
+}
@@ -0,0 +1,53 @@
+package com.strahovka.service;
+
+import com.strahovka.dto.InsurancePolicyMapper;
+import com.strahovka.dto.KeysetPage;
+import com.strahovka.dto.PolicyListItem;
+import com.strahovka.entity.User;
+import com.strahovka.repository.InsuranceRepository;
+import com.strahovka.repository.UserRepository;
+import com.strahovka.util.KeysetCursor;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Paged policy listings as slim projections, newest first, with keyset cursors over {@code (createdAt, id)}.
+ */
+@Service
+@RequiredArgsConstructor
+public class PolicyListingService {
+
+    private final InsuranceRepository insuranceRepository;
+    private final UserRepository userRepository;
+    private final InsurancePolicyMapper insurancePolicyMapper;
+
+    @Transactional(readOnly = true)
+    public KeysetPage<PolicyListItem> getUserPolicies(String email, String cursor, int size) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new EntityNotFoundException("User not found: " + email));
+        int pageSize = KeysetPage.checkSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<PolicyListItem> rows = after == null
+                ? insuranceRepository.findUserPolicyPage(user.getId(), limit)
+                : insuranceRepository.findUserPolicyPageAfter(user.getId(), after.createdAt(), after.id(), limit);
+        return insurancePolicyMapper.toPage(rows, pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<PolicyListItem> getAllPolicies(String cursor, int size) {
+        int pageSize = KeysetPage.checkSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<PolicyListItem> rows = after == null
+                ? insuranceRepository.findPolicyPage(limit)
+                : insuranceRepository.findPolicyPageAfter(after.createdAt(), after.id(), limit);
+        return insurancePolicyMapper.toPage(rows, pageSize);
+    }
+}
@@ -0,0 +1,308 @@
+package com.strahovka.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strahovka.dto.PricingRules;
+import com.strahovka.dto.PricingRules.Condition;
+import com.strahovka.dto.PricingRules.ProductRules;
+import com.strahovka.dto.PricingRules.Rule;
+import com.strahovka.entity.Insurance.HealthApplication;
+import com.strahovka.entity.Insurance.PropertyApplication;
+import com.strahovka.entity.Insurance.TravelApplication;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Rule-based pricing for TRAVEL, HEALTH and PROPERTY applications.
+ * <p>
+ * The decision tables are parsed and compiled once: every condition becomes a typed predicate over a
+ * field accessor from the static registries below, so evaluation is plain method calls with no
+ * reflection or parsing. Unknown fields or operators fail at startup.
+ */
+@Service
+public class PricingRuleEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(PricingRuleEngine.class);
+
+    private enum Kind { NUMBER, TEXT, FLAG }
+
+    private record Field<T>(Kind kind, Function<T, ?> getter) {
+    }
+
+    private static final Map<String, Field<TravelApplication>> TRAVEL_FIELDS = Map.ofEntries(
+            text("destinationCountry", TravelApplication::getDestinationCountry),
+            text("purposeOfTrip", TravelApplication::getPurposeOfTrip),
+            number("tripDays", (TravelApplication app) -> app.getTravelStartDate() != null && app.getTravelEndDate() != null
+                    ? BigDecimal.valueOf(Math.max(1, ChronoUnit.DAYS.between(app.getTravelStartDate(), app.getTravelEndDate())))
+                    : null),
+            flag("coverMedicalExpenses", TravelApplication::getCoverMedicalExpenses),
+            flag("coverAccidents", TravelApplication::getCoverAccidents),
+            flag("coverLuggage", TravelApplication::getCoverLuggage),
+            flag("coverTripCancellation", TravelApplication::getCoverTripCancellation),
+            flag("coverSportsActivities", TravelApplication::getCoverSportsActivities),
+            flag("hasChronicDiseases", TravelApplication::getHasChronicDiseases)
+    );
+
+    private static final Map<String, Field<HealthApplication>> HEALTH_FIELDS = Map.ofEntries(
+            number("age", (HealthApplication app) -> app.getBirthDate() != null
+                    ? BigDecimal.valueOf(Period.between(app.getBirthDate(), LocalDate.now()).getYears())
+                    : null),
+            text("coverageType", HealthApplication::getCoverageType),
+            number("coverageAmount", HealthApplication::getCoverageAmount),
+            flag("smokingStatus", HealthApplication::getSmokingStatus),
+            flag("hasChronicDiseases", HealthApplication::getHasChronicDiseases),
+            flag("hasDisabilities", HealthApplication::getHasDisabilities),
+            flag("coverDental", HealthApplication::getCoverDental),
+            flag("coverVision", HealthApplication::getCoverVision),
+            flag("coverMaternity", HealthApplication::getCoverMaternity),
+            flag("coverEmergency", HealthApplication::getCoverEmergency),
+            flag("familyDoctorNeeded", HealthApplication::getFamilyDoctorNeeded)
+    );
+
+    private static final Map<String, Field<PropertyApplication>> PROPERTY_FIELDS = Map.ofEntries(
+            text("propertyType", PropertyApplication::getPropertyType),
+            text("constructionType", PropertyApplication::getConstructionType),
+            number("propertyArea", PropertyApplication::getPropertyArea),
+            number("propertyValue", PropertyApplication::getPropertyValue),
+            number("buildingAge", (PropertyApplication app) -> app.getYearBuilt() != null
+                    ? BigDecimal.valueOf(LocalDate.now().getYear() - app.getYearBuilt())
+                    : null),
+            flag("hasSecuritySystem", PropertyApplication::getHasSecuritySystem),
+            flag("hasFireAlarm", PropertyApplication::getHasFireAlarm),
+            flag("coverNaturalDisasters", PropertyApplication::getCoverNaturalDisasters),
+            flag("coverTheft", PropertyApplication::getCoverTheft),
+            flag("coverThirdPartyLiability", PropertyApplication::getCoverThirdPartyLiability),
+            flag("hasMortgage", PropertyApplication::getHasMortgage)
+    );
+
+    private final ObjectMapper objectMapper;
+    private final Resource rulesLocation;
+
+    private volatile CompiledProduct<TravelApplication> travel;
+    private volatile CompiledProduct<HealthApplication> health;
+    private volatile CompiledProduct<PropertyApplication> property;
+
+    public PricingRuleEngine(ObjectMapper objectMapper,
+                             @Value("${pricing.rules-location:classpath:pricing/rules.json}") Resource rulesLocation) {
+        this.objectMapper = objectMapper;
+        this.rulesLocation = rulesLocation;
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        PricingRules rules;
+        try (InputStream in = rulesLocation.getInputStream()) {
+            rules = objectMapper.readValue(in, PricingRules.class);
+        }
+        this.travel = compile("TRAVEL", product(rules, "TRAVEL"), TRAVEL_FIELDS);
+        this.health = compile("HEALTH", product(rules, "HEALTH"), HEALTH_FIELDS);
+        this.property = compile("PROPERTY", product(rules, "PROPERTY"), PROPERTY_FIELDS);
+        log.info("Pricing rules compiled from {}", rulesLocation);
+    }
+
+    public BigDecimal priceTravel(TravelApplication application) {
+        return travel.evaluate(application);
+    }
+
+    public BigDecimal priceHealth(HealthApplication application) {
+        return health.evaluate(application);
+    }
+
+    public BigDecimal priceProperty(PropertyApplication application) {
+        return property.evaluate(application);
+    }
+
+    private static ProductRules product(PricingRules rules, String type) {
+        ProductRules product = rules.getProducts() != null ? rules.getProducts().get(type) : null;
+        if (product == null || product.getBaseAmount() == null) {
+            throw new IllegalStateException("Pricing rules for " + type + " must define baseAmount");
+        }
+        return product;
+    }
+
+    private static final class CompiledRule<T> {
+        final Predicate<T> condition;
+        final BigDecimal multiply;
+        final BigDecimal add;
+
+        CompiledRule(Predicate<T> condition, BigDecimal multiply, BigDecimal add) {
+            this.condition = condition;
+            this.multiply = multiply;
+            this.add = add;
+        }
+    }
+
+    private static final class CompiledProduct<T> {
+        final BigDecimal baseAmount;
+        final Function<T, BigDecimal> unitField;
+        final BigDecimal unitRate;
+        final BigDecimal minimum;
+        final BigDecimal maximum;
+        final CompiledRule<T>[] rules;
+
+        CompiledProduct(BigDecimal baseAmount, Function<T, BigDecimal> unitField, BigDecimal unitRate,
+                        BigDecimal minimum, BigDecimal maximum, CompiledRule<T>[] rules) {
+            this.baseAmount = baseAmount;
+            this.unitField = unitField;
+            this.unitRate = unitRate;
+            this.minimum = minimum;
+            this.maximum = maximum;
+            this.rules = rules;
+        }
+
+        BigDecimal evaluate(T application) {
+            BigDecimal amount = baseAmount;
+            if (unitField != null) {
+                BigDecimal units = unitField.apply(application);
+                if (units != null && units.signum() > 0) {
+                    amount = units.multiply(unitRate);
+                }
+            }
+            for (CompiledRule<T> rule : rules) {
+                if (rule.condition.test(application)) {
+                    if (rule.multiply != null) amount = amount.multiply(rule.multiply);
+                    if (rule.add != null) amount = amount.add(rule.add);
+                }
+            }
+            if (minimum != null) amount = amount.max(minimum);
+            if (maximum != null) amount = amount.min(maximum);
+            return amount.setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CompiledProduct<T> compile(String type, ProductRules product, Map<String, Field<T>> fields) {
+        Function<T, BigDecimal> unitField = null;
+        if (product.getUnitField() != null) {
+            Field<T> field = field(type, fields, product.getUnitField());
+            if (field.kind() != Kind.NUMBER || product.getUnitRate() == null) {
+                throw new IllegalStateException(type + " unitField must be numeric and have a unitRate");
+            }
+            unitField = (Function<T, BigDecimal>) field.getter();
+        }
+        List<Rule> rules = product.getRules() != null ? product.getRules() : List.of();
+        CompiledRule<T>[] compiled = new CompiledRule[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            Rule rule = rules.get(i);
+            Predicate<T> condition = app -> true;
+            if (rule.getWhen() != null) {
+                for (Condition c : rule.getWhen()) {
+                    condition = condition.and(compileCondition(type, fields, c));
+                }
+            }
+            compiled[i] = new CompiledRule<>(condition, rule.getMultiply(), rule.getAdd());
+        }
+        return new CompiledProduct<>(product.getBaseAmount(), unitField, product.getUnitRate(),
+                product.getMinimum(), product.getMaximum(), compiled);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Predicate<T> compileCondition(String type, Map<String, Field<T>> fields, Condition condition) {
+        Field<T> field = field(type, fields, condition.getField());
+        String op = condition.getOp();
+        if (op == null) {
+            throw new IllegalStateException("Missing operator for " + type + "." + condition.getField());
+        }
+        switch (field.kind()) {
+            case NUMBER: {
+                Function<T, BigDecimal> getter = (Function<T, BigDecimal>) field.getter();
+                switch (op) {
+                    case "eq": { BigDecimal v = decimal(condition.getValue()); return app -> { BigDecimal x = getter.apply(app); return x != null && x.compareTo(v) == 0; }; }
+                    case "ne": { BigDecimal v = decimal(condition.getValue()); return app -> { BigDecimal x = getter.apply(app); return x != null && x.compareTo(v) != 0; }; }
+                    case "gt": { BigDecimal v = decimal(condition.getValue()); return app -> { BigDecimal x = getter.apply(app); return x != null && x.compareTo(v) > 0; }; }
+                    case "gte": { BigDecimal v = decimal(condition.getValue()); return app -> { BigDecimal x = getter.apply(app); return x != null && x.compareTo(v) >= 0; }; }
+                    case "lt": { BigDecimal v = decimal(condition.getValue()); return app -> { BigDecimal x = getter.apply(app); return x != null && x.compareTo(v) < 0; }; }
+                    case "lte": { BigDecimal v = decimal(condition.getValue()); return app -> { BigDecimal x = getter.apply(app); return x != null && x.compareTo(v) <= 0; }; }
+                    case "between": {
+                        if (condition.getValues() == null || condition.getValues().size() != 2) {
+                            throw new IllegalStateException(type + "." + condition.getField() + " between needs two values");
+                        }
+                        BigDecimal from = decimal(condition.getValues().get(0));
+                        BigDecimal to = decimal(condition.getValues().get(1));
+                        return app -> { BigDecimal x = getter.apply(app); return x != null && x.compareTo(from) >= 0 && x.compareTo(to) < 0; };
+                    }
+                    default:
+                        break;
+                }
+                break;
+            }
+            case TEXT: {
+                Function<T, String> getter = (Function<T, String>) field.getter();
+                switch (op) {
+                    case "eq": { String v = String.valueOf(condition.getValue()); return app -> v.equalsIgnoreCase(getter.apply(app)); }
+                    case "ne": { String v = String.valueOf(condition.getValue()); return app -> { String x = getter.apply(app); return x != null && !v.equalsIgnoreCase(x); }; }
+                    case "in": { Set<String> v = upperCaseSet(type, condition); return app -> { String x = getter.apply(app); return x != null && v.contains(x.toUpperCase(Locale.ROOT)); }; }
+                    case "notIn": { Set<String> v = upperCaseSet(type, condition); return app -> { String x = getter.apply(app); return x != null && !v.contains(x.toUpperCase(Locale.ROOT)); }; }
+                    default:
+                        break;
+                }
+                break;
+            }
+            case FLAG: {
+                Function<T, Boolean> getter = (Function<T, Boolean>) field.getter();
+                switch (op) {
+                    case "isTrue": return app -> Boolean.TRUE.equals(getter.apply(app));
+                    case "isFalse": return app -> Boolean.FALSE.equals(getter.apply(app));
+                    default:
+                        break;
+                }
+                break;
+            }
+        }
+        throw new IllegalStateException("Unsupported operator '" + op + "' for " + type + "." + condition.getField());
+    }
+
+    private static <T> Field<T> field(String type, Map<String, Field<T>> fields, String name) {
+        Field<T> field = fields.get(name);
+        if (field == null) {
+            throw new IllegalStateException("Unknown pricing field " + type + "." + name);
+        }
+        return field;
+    }
+
+    private static BigDecimal decimal(Object value) {
+        if (value == null) throw new IllegalStateException("Pricing condition is missing a value");
+        return new BigDecimal(value.toString());
+    }
+
+    private static Set<String> upperCaseSet(String type, Condition condition) {
+        if (condition.getValues() == null) {
+            throw new IllegalStateException(type + "." + condition.getField() + " " + condition.getOp() + " needs values");
+        }
+        Set<String> result = new HashSet<>();
+        for (Object v : condition.getValues()) {
+            result.add(String.valueOf(v).toUpperCase(Locale.ROOT));
+        }
+        return Set.copyOf(result);
+    }
+
+    private static <T> Map.Entry<String, Field<T>> number(String name, Function<T, BigDecimal> getter) {
+        return Map.entry(name, new Field<>(Kind.NUMBER, getter));
+    }
+
+    private static <T> Map.Entry<String, Field<T>> text(String name, Function<T, String> getter) {
+        return Map.entry(name, new Field<>(Kind.TEXT, getter));
+    }
+
+    private static <T> Map.Entry<String, Field<T>> flag(String name, Function<T, Boolean> getter) {
+        return Map.entry(name, new Field<>(Kind.FLAG, getter));
+    }
+}
@@ -0,0 +1,234 @@
+package com.strahovka.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.strahovka.dto.KaskoApplicationRequest;
+import com.strahovka.dto.OsagoApplicationRequest;
+import com.strahovka.dto.PriceGridRequest;
+import com.strahovka.dto.PriceGridResult;
+import com.strahovka.dto.QuoteResult;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * Stateless pricing of KASKO/OSAGO requests. Nothing here touches the database or creates users.
+ */
+@Service
+@RequiredArgsConstructor
+public class QuoteService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteService.class);
+
+    private enum ParamType { DECIMAL, INTEGER, FLAG }
+
+    private record GridParam(String field, ParamType type) {
+    }
+
+    /** Argument order of {@link TariffEngine#kaskoPrice}. */
+    private static final List<GridParam> KASKO_PARAMS = List.of(
+            new GridParam("carValue", ParamType.DECIMAL),
+            new GridParam("carYear", ParamType.INTEGER),
+            new GridParam("driverExperienceYears", ParamType.INTEGER),
+            new GridParam("hasAntiTheftSystem", ParamType.FLAG),
+            new GridParam("garageParking", ParamType.FLAG),
+            new GridParam("duration", ParamType.INTEGER));
+
+    /** Argument order of {@link TariffEngine#osagoPrice}. */
+    private static final List<GridParam> OSAGO_PARAMS = List.of(
+            new GridParam("enginePower", ParamType.INTEGER),
+            new GridParam("driverExperienceYears", ParamType.INTEGER),
+            new GridParam("isUnlimitedDrivers", ParamType.FLAG),
+            new GridParam("duration", ParamType.INTEGER));
+
+    private final TariffEngine tariffEngine;
+    private final ObjectMapper objectMapper;
+
+    @Value("${quotes.batch.chunk-size:4096}")
+    private int chunkSize;
+
+    @Value("${quotes.grid.max-cells:50000}")
+    private int maxGridCells;
+
+    public BigDecimal quoteKasko(KaskoApplicationRequest request) {
+        if (request.getCarValue() == null) {
+            throw new IllegalArgumentException("Car value is required");
+        }
+        return tariffEngine.kaskoPrice(request.getCarValue(), request.getCarYear(), request.getDriverExperienceYears(),
+                request.getHasAntiTheftSystem(), request.getGarageParking(), request.getDuration());
+    }
+
+    public BigDecimal quoteOsago(OsagoApplicationRequest request) {
+        return tariffEngine.osagoPrice(request.getEnginePower(), request.getDriverExperienceYears(),
+                request.getIsUnlimitedDrivers(), request.getDuration());
+    }
+
+    /**
+     * Prices every combination of the requested axis values on top of the base application.
+     * Cells are computed in parallel on the common fork-join pool straight from {@link TariffEngine}.
+     */
+    public PriceGridResult priceGrid(PriceGridRequest request) {
+        String type = request.getType() != null ? request.getType().toUpperCase(Locale.ROOT) : "";
+        List<GridParam> params;
+        switch (type) {
+            case "KASKO" -> params = KASKO_PARAMS;
+            case "OSAGO" -> params = OSAGO_PARAMS;
+            default -> throw new IllegalArgumentException("Unsupported insurance type: " + request.getType());
+        }
+
+        Object[] base = new Object[params.size()];
+        if (request.getBase() != null) {
+            for (int i = 0; i < params.size(); i++) {
+                base[i] = gridValue(params.get(i), request.getBase().get(params.get(i).field()));
+            }
+        }
+
+        List<PriceGridRequest.Axis> axes = request.getAxes() != null ? request.getAxes() : List.of();
+        int[] positions = new int[axes.size()];
+        Object[][] axisValues = new Object[axes.size()][];
+        long cells = 1;
+        for (int a = 0; a < axes.size(); a++) {
+            PriceGridRequest.Axis axis = axes.get(a);
+            int position = -1;
+            for (int i = 0; i < params.size(); i++) {
+                if (params.get(i).field().equals(axis.getField())) position = i;
+            }
+            if (position < 0) {
+                throw new IllegalArgumentException("Unsupported " + type + " grid axis: " + axis.getField());
+            }
+            for (int b = 0; b < a; b++) {
+                if (positions[b] == position) throw new IllegalArgumentException("Duplicate grid axis: " + axis.getField());
+            }
+            if (axis.getValues() == null || axis.getValues().isEmpty()) {
+                throw new IllegalArgumentException("Grid axis " + axis.getField() + " has no values");
+            }
+            cells *= axis.getValues().size();
+            if (cells > maxGridCells) {
+                throw new IllegalArgumentException("Grid exceeds the maximum of " + maxGridCells + " cells");
+            }
+            positions[a] = position;
+            axisValues[a] = new Object[axis.getValues().size()];
+            for (int v = 0; v < axisValues[a].length; v++) {
+                axisValues[a][v] = gridValue(params.get(position), axis.getValues().get(v));
+            }
+        }
+
+        boolean kasko = params == KASKO_PARAMS;
+        if (kasko && base[0] == null && Arrays.stream(positions).noneMatch(position -> position == 0)) {
+            throw new IllegalArgumentException("Car value is required");
+        }
+
+        BigDecimal[] prices = new BigDecimal[(int) cells];
+        IntStream.range(0, prices.length).parallel().forEach(cell -> {
+            Object[] args = base.clone();
+            int rest = cell;
+            for (int a = axisValues.length - 1; a >= 0; a--) {
+                int size = axisValues[a].length;
+                args[positions[a]] = axisValues[a][rest % size];
+                rest /= size;
+            }
+            prices[cell] = kasko
+                    ? tariffEngine.kaskoPrice((BigDecimal) args[0], (Integer) args[1], (Integer) args[2],
+                            (Boolean) args[3], (Boolean) args[4], (Integer) args[5])
+                    : tariffEngine.osagoPrice((Integer) args[0], (Integer) args[1], (Boolean) args[2], (Integer) args[3]);
+        });
+
+        return PriceGridResult.builder()
+                .type(type)
+                .axes(axes)
+                .cellCount(prices.length)
+                .prices(prices)
+                .build();
+    }
+
+    private static Object gridValue(GridParam param, JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) return null;
+        try {
+            return switch (param.type()) {
+                case DECIMAL -> node.isNumber() ? node.decimalValue() : new BigDecimal(node.asText().trim());
+                case INTEGER -> node.isIntegralNumber() && node.canConvertToInt() ? node.intValue() : Integer.valueOf(node.asText().trim());
+                case FLAG -> node.isBoolean() ? node.booleanValue() : Boolean.valueOf(node.asText().trim());
+            };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + param.field() + ": " + node);
+        }
+    }
+
+    /**
+     * Reads a JSON array of KASKO/OSAGO request objects (each with a {@code type} field) from {@code in}
+     * and writes a JSON array of {@link QuoteResult} to {@code out} in the same order.
+     * Items are buffered in chunks of {@code quotes.batch.chunk-size}; every chunk is priced in parallel
+     * and flushed before the next one is read, so memory use does not depend on the batch size.
+     */
+    public int quoteBatch(InputStream in, OutputStream out) throws IOException {
+        int total = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(in);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Batch quote body must be a JSON array");
+            }
+            ObjectWriter writer = objectMapper.writerFor(QuoteResult.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            generator.writeStartArray();
+            List<JsonNode> chunk = new ArrayList<>(chunkSize);
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                chunk.add(objectMapper.readTree(parser));
+                if (chunk.size() == chunkSize) {
+                    writeChunk(generator, writer, chunk, total);
+                    total += chunk.size();
+                    chunk.clear();
+                }
+            }
+            writeChunk(generator, writer, chunk, total);
+            total += chunk.size();
+            generator.writeEndArray();
+        }
+        log.info("Priced batch of {} quotes", total);
+        return total;
+    }
+
+    private void writeChunk(JsonGenerator generator, ObjectWriter writer, List<JsonNode> chunk, int offset) throws IOException {
+        if (chunk.isEmpty()) return;
+        QuoteResult[] results = new QuoteResult[chunk.size()];
+        IntStream.range(0, chunk.size()).parallel()
+                .forEach(i -> results[i] = quoteItem(chunk.get(i), offset + i));
+        for (QuoteResult result : results) {
+            writer.writeValue(generator, result);
+        }
+        generator.flush();
+    }
+
+    private QuoteResult quoteItem(JsonNode item, int index) {
+        String type = item.path("type").asText("").toUpperCase();
+        QuoteResult.QuoteResultBuilder result = QuoteResult.builder().index(index).type(type);
+        try {
+            switch (type) {
+                case "KASKO":
+                    return result.calculatedAmount(quoteKasko(objectMapper.treeToValue(item, KaskoApplicationRequest.class))).build();
+                case "OSAGO":
+                    return result.calculatedAmount(quoteOsago(objectMapper.treeToValue(item, OsagoApplicationRequest.class))).build();
+                default:
+                    return result.error("Unsupported insurance type: " + type).build();
+            }
+        } catch (Exception e) {
+            return result.error(e.getMessage()).build();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.strahovka.service;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes expired refresh tokens in short batches, each in its own transaction, then the revocations of
+ * families that have no tokens left; see {@link RefreshTokenStore}. Expired account claim tokens
+ * ({@link AccountClaimService}) are removed in the same run.
+ */
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenPurgeJob.class);
+
+    private final RefreshTokenStore refreshTokenStore;
+    private final AccountClaimService accountClaimService;
+
+    @Value("${refresh-tokens.purge.batch-size:5000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${refresh-tokens.purge.cron:0 30 * * * *}")
+    public void run() {
+        try {
+            long purged = 0;
+            int deleted;
+            do {
+                deleted = refreshTokenStore.purgeExpired(batchSize);
+                purged += deleted;
+            } while (deleted == batchSize);
+            int revocations = refreshTokenStore.purgeRevocations();
+            int claimTokens = accountClaimService.purgeExpired();
+            log.info("Purged {} expired refresh tokens, {} revocations and {} claim tokens", purged, revocations, claimTokens);
+        } catch (RuntimeException e) {
+            log.error("Refresh token purge failed", e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.strahovka.service;
+
+import com.strahovka.entity.User;
+import com.strahovka.util.TokenHashes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Refresh tokens, stored only as SHA-256 hashes in {@code refresh_tokens}.
+ * <p>
+ * Tokens are opaque random strings, not JWTs, so the authentication filter can never take one for an access
+ * token; the row is the only thing that makes a token valid. Rows are never updated: a login starts a new
+ * family, and a refresh appends the successor to the presented token's family. Only the newest token of a
+ * family is accepted. Presenting an older one means the token was replayed, so the whole family is revoked by
+ * appending to {@code refresh_token_revocations}, and the user's token version is bumped so the access tokens
+ * already handed out stop working too. That revocation commits on its own, because the caller's transaction
+ * rolls back with the rejected refresh. Expired rows are removed by {@link RefreshTokenPurgeJob}.
+ */
+@Service
+public class RefreshTokenStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenStore.class);
+
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final String INSERT = """
+            INSERT INTO refresh_tokens (token_hash, family_id, user_id, expires_at) VALUES (?, ?, ?, ?)
+            """;
+
+    /** Serialises concurrent refreshes with the same token; the second one then sees the first one's successor. */
+    private static final String FIND_FOR_UPDATE = """
+            SELECT id, user_id, family_id FROM refresh_tokens
+            WHERE token_hash = ? AND expires_at > CURRENT_TIMESTAMP
+            FOR UPDATE
+            """;
+
+    private static final String FAMILY_STATE = """
+            SELECT (SELECT max(id) FROM refresh_tokens WHERE family_id = ?) AS latest_id,
+                   EXISTS (SELECT 1 FROM refresh_token_revocations WHERE family_id = ?) AS revoked
+            """;
+
+    private static final String REVOKE_FAMILY = """
+            INSERT INTO refresh_token_revocations (family_id) VALUES (?) ON CONFLICT DO NOTHING
+            """;
+
+    private static final String REVOKE_USER = """
+            INSERT INTO refresh_token_revocations (family_id)
+            SELECT DISTINCT family_id FROM refresh_tokens WHERE user_id = ? AND expires_at > CURRENT_TIMESTAMP
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String PURGE_TOKENS = """
+            DELETE FROM refresh_tokens
+            WHERE id IN (SELECT id FROM refresh_tokens WHERE expires_at <= CURRENT_TIMESTAMP LIMIT ?)
+            """;
+
+    private static final String PURGE_REVOCATIONS = """
+            DELETE FROM refresh_token_revocations r
+            WHERE NOT EXISTS (SELECT 1 FROM refresh_tokens t WHERE t.family_id = r.family_id)
+            """;
+
+    /** The stored token a refresh was accepted for. */
+    public record StoredToken(long userId, UUID familyId) {
+    }
+
+    private record Row(long id, long userId, UUID familyId) {
+    }
+
+    private record FamilyState(long latestId, boolean revoked) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JwtService jwtService;
+    private final TokenVersionService tokenVersionService;
+    private final TransactionTemplate separateTransaction;
+
+    public RefreshTokenStore(JdbcTemplate jdbcTemplate, JwtService jwtService, TokenVersionService tokenVersionService,
+                             PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jwtService = jwtService;
+        this.tokenVersionService = tokenVersionService;
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Issues a refresh token that starts a new family, i.e. a new session. */
+    @Transactional
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID());
+    }
+
+    /** Issues the successor of an accepted token in the same family. */
+    @Transactional
+    public String issue(User user, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Instant expiresAt = Instant.now().plusMillis(jwtService.getRefreshExpiration());
+        jdbcTemplate.update(INSERT, TokenHashes.sha256Hex(token), familyId, user.getId(), Timestamp.from(expiresAt));
+        return token;
+    }
+
+    /**
+     * Accepts {@code token} for a refresh. The caller must issue the successor with
+     * {@link #issue(User, UUID)} in the same transaction, which retires {@code token}.
+     */
+    @Transactional
+    public StoredToken accept(String token) {
+        List<Row> rows = jdbcTemplate.query(FIND_FOR_UPDATE,
+                (rs, i) -> new Row(rs.getLong("id"), rs.getLong("user_id"), rs.getObject("family_id", UUID.class)),
+                TokenHashes.sha256Hex(token));
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Invalid or expired refresh token");
+        }
+        Row row = rows.get(0);
+        FamilyState family = jdbcTemplate.queryForObject(FAMILY_STATE,
+                (rs, i) -> new FamilyState(rs.getLong("latest_id"), rs.getBoolean("revoked")),
+                row.familyId(), row.familyId());
+        if (family.revoked()) {
+            throw new RuntimeException("Refresh token has been revoked");
+        }
+        if (family.latestId() != row.id()) {
+            log.warn("Reuse of a rotated refresh token for user {}, revoking its family {}", row.userId(), row.familyId());
+            separateTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.update(REVOKE_FAMILY, row.familyId());
+                tokenVersionService.bump(row.userId());
+            });
+            throw new RuntimeException("Refresh token has been revoked");
+        }
+        return new StoredToken(row.userId(), row.familyId());
+    }
+
+    /** Revokes every live session of the user. */
+    @Transactional
+    public int revokeAll(long userId) {
+        return jdbcTemplate.update(REVOKE_USER, userId);
+    }
+
+    /** Deletes up to {@code batchSize} expired tokens and returns how many were deleted. */
+    @Transactional
+    public int purgeExpired(int batchSize) {
+        return jdbcTemplate.update(PURGE_TOKENS, batchSize);
+    }
+
+    /** Drops revocations whose family has no tokens left. */
+    @Transactional
+    public int purgeRevocations() {
+        return jdbcTemplate.update(PURGE_REVOCATIONS);
+    }
+}
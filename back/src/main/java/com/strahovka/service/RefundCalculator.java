@@ -0,0 +1,64 @@
+package com.strahovka.service;
+
+import com.strahovka.util.Money;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Early-termination refund formula: the full price within the cooling-off period, afterwards the unused
+ * days at a daily rate (10 decimals) minus the admin fee. Used by policy cancellation and the refund simulator.
+ */
+@Component
+public class RefundCalculator {
+
+    private static final long DAILY_RATE_UNITS = 100_000_000L;
+
+    /** Cooling-off period in days and admin fee in percent of the pro-rata refund. */
+    public record RefundTerms(int coolingOffDays, int adminFeePercent) {
+        public static final RefundTerms DEFAULT = new RefundTerms(14, 20);
+
+        public RefundTerms {
+            if (coolingOffDays < 0) throw new IllegalArgumentException("Cooling-off days cannot be negative");
+            if (adminFeePercent < 0 || adminFeePercent > 100) throw new IllegalArgumentException("Admin fee must be between 0 and 100 percent");
+        }
+    }
+
+    public BigDecimal refund(BigDecimal price, LocalDate startDate, LocalDate endDate, LocalDate asOf, RefundTerms terms) {
+        long daysSinceActivation = Math.max(0, ChronoUnit.DAYS.between(startDate, asOf));
+        long totalDays = ChronoUnit.DAYS.between(startDate, endDate);
+        if (totalDays <= 0) throw new IllegalStateException("Policy duration is invalid.");
+        return refund(price, totalDays, daysSinceActivation, terms);
+    }
+
+    /**
+     * Computed in kopecks; prices with more than two decimals or beyond long range take the BigDecimal path.
+     */
+    public BigDecimal refund(BigDecimal price, long totalDays, long daysSinceActivation, RefundTerms terms) {
+        if (daysSinceActivation <= terms.coolingOffDays()) {
+            return price.max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+        }
+        if (price == null) throw new IllegalStateException("Policy price is not set.");
+        long remainingDays = totalDays - daysSinceActivation;
+        if (remainingDays <= 0) return Money.ZERO.toBigDecimal();
+
+        if (Money.isExact(price)) {
+            try {
+                long dailyRate = Money.divideHalfUp(Math.multiplyExact(Money.of(price).kopecks(), DAILY_RATE_UNITS), totalDays);
+                long refund = Money.divideHalfUp(
+                        Math.multiplyExact(Math.multiplyExact(dailyRate, remainingDays), 100L - terms.adminFeePercent()),
+                        DAILY_RATE_UNITS * 100);
+                return Money.ofKopecks(refund).max(Money.ZERO).toBigDecimal();
+            } catch (ArithmeticException overflow) {
+                // out of long range, use the BigDecimal path below
+            }
+        }
+        BigDecimal dailyRate = price.divide(BigDecimal.valueOf(totalDays), 10, RoundingMode.HALF_UP);
+        BigDecimal proRataRefund = dailyRate.multiply(BigDecimal.valueOf(remainingDays));
+        BigDecimal adminFee = proRataRefund.multiply(BigDecimal.valueOf(terms.adminFeePercent(), 2));
+        return proRataRefund.subtract(adminFee).max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,45 @@
+package com.strahovka.service;
+
+import com.strahovka.dto.RefundSimulationResult;
+import com.strahovka.service.RefundCalculator.RefundTerms;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Nightly refund-liability estimate under the configured terms; the latest result is served by the admin API.
+ */
+@Component
+@RequiredArgsConstructor
+public class RefundSimulationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RefundSimulationJob.class);
+
+    private final RefundSimulationService refundSimulationService;
+
+    @Value("${refunds.simulation.cooling-off-days:14}")
+    private int coolingOffDays;
+
+    @Value("${refunds.simulation.admin-fee-percent:20}")
+    private int adminFeePercent;
+
+    private volatile RefundSimulationResult latest;
+
+    @Scheduled(cron = "${refunds.simulation.cron:0 30 2 * * *}")
+    public void run() {
+        try {
+            latest = refundSimulationService.simulate(new RefundTerms(coolingOffDays, adminFeePercent), LocalDate.now());
+        } catch (RuntimeException e) {
+            log.error("Scheduled refund simulation failed", e);
+        }
+    }
+
+    public RefundSimulationResult getLatest() {
+        return latest;
+    }
+}
@@ -0,0 +1,171 @@
+package com.strahovka.service;
+
+import com.strahovka.dto.RefundCandidate;
+import com.strahovka.dto.RefundSimulationResult;
+import com.strahovka.enums.PolicyStatus;
+import com.strahovka.repository.InsuranceRepository;
+import com.strahovka.service.RefundCalculator.RefundTerms;
+import com.strahovka.util.Money;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Read-only estimate of the refund liability of the whole ACTIVE book under given cancellation terms.
+ * <p>
+ * Policies are streamed as projections with a bounded fetch size and processed in chunks of
+ * {@code refunds.simulation.chunk-size}; each chunk is priced in parallel with {@link RefundCalculator}
+ * and folded into per category / start month totals, so heap use does not grow with the book.
+ */
+@Service
+@RequiredArgsConstructor
+public class RefundSimulationService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefundSimulationService.class);
+    private static final String UNKNOWN_CATEGORY = "UNKNOWN";
+
+    private final InsuranceRepository insuranceRepository;
+    private final RefundCalculator refundCalculator;
+
+    @Value("${refunds.simulation.chunk-size:5000}")
+    private int chunkSize;
+
+    @Transactional(readOnly = true)
+    public RefundSimulationResult simulate(RefundTerms terms, LocalDate asOf) {
+        long started = System.nanoTime();
+        Totals totals = new Totals();
+        try (Stream<RefundCandidate> candidates = insuranceRepository.streamRefundCandidates(PolicyStatus.ACTIVE)) {
+            List<RefundCandidate> chunk = new ArrayList<>(chunkSize);
+            Iterator<RefundCandidate> iterator = candidates.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    totals.merge(simulateChunk(chunk, terms, asOf));
+                    chunk.clear();
+                }
+            }
+            totals.merge(simulateChunk(chunk, terms, asOf));
+        }
+        long durationMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Refund simulation as of {} ({} days, {}% fee): {} policies, {} skipped, refund {} in {} ms",
+                asOf, terms.coolingOffDays(), terms.adminFeePercent(), totals.policyCount, totals.skippedCount,
+                Money.ofKopecks(totals.refundKopecks), durationMs);
+        return totals.toResult(terms, asOf, durationMs);
+    }
+
+    private Totals simulateChunk(List<RefundCandidate> chunk, RefundTerms terms, LocalDate asOf) {
+        return chunk.parallelStream().collect(Totals::new, (totals, candidate) -> add(totals, candidate, terms, asOf), Totals::merge);
+    }
+
+    private void add(Totals totals, RefundCandidate candidate, RefundTerms terms, LocalDate asOf) {
+        if (candidate.getPrice() == null || candidate.getStartDate() == null || candidate.getEndDate() == null) {
+            totals.skippedCount++;
+            return;
+        }
+        long totalDays = ChronoUnit.DAYS.between(candidate.getStartDate(), candidate.getEndDate());
+        if (totalDays <= 0) {
+            totals.skippedCount++;
+            return;
+        }
+        long daysSinceActivation = Math.max(0, ChronoUnit.DAYS.between(candidate.getStartDate(), asOf));
+        long refund = Money.of(refundCalculator.refund(candidate.getPrice(), totalDays, daysSinceActivation, terms)).kopecks();
+        long premium = Money.of(candidate.getPrice()).kopecks();
+        boolean coolingOff = daysSinceActivation <= terms.coolingOffDays();
+
+        String category = candidate.getCategoryName() != null ? candidate.getCategoryName() : UNKNOWN_CATEGORY;
+        Bucket bucket = totals.buckets.computeIfAbsent(new BucketKey(category, YearMonth.from(candidate.getStartDate())), k -> new Bucket());
+        bucket.add(premium, refund, coolingOff);
+        totals.policyCount++;
+        totals.coolingOffCount += coolingOff ? 1 : 0;
+        totals.premiumKopecks += premium;
+        totals.refundKopecks += refund;
+    }
+
+    private record BucketKey(String category, YearMonth startMonth) {
+    }
+
+    private static final class Bucket {
+        long policyCount;
+        long coolingOffCount;
+        long premiumKopecks;
+        long refundKopecks;
+
+        void add(long premium, long refund, boolean coolingOff) {
+            policyCount++;
+            coolingOffCount += coolingOff ? 1 : 0;
+            premiumKopecks += premium;
+            refundKopecks += refund;
+        }
+
+        void merge(Bucket other) {
+            policyCount += other.policyCount;
+            coolingOffCount += other.coolingOffCount;
+            premiumKopecks += other.premiumKopecks;
+            refundKopecks += other.refundKopecks;
+        }
+    }
+
+    /** Mutable accumulator; each instance is confined to one thread until merged. */
+    private static final class Totals {
+        final Map<BucketKey, Bucket> buckets = new HashMap<>();
+        long policyCount;
+        long coolingOffCount;
+        long skippedCount;
+        long premiumKopecks;
+        long refundKopecks;
+
+        void merge(Totals other) {
+            other.buckets.forEach((key, bucket) -> buckets.merge(key, bucket, (a, b) -> {
+                a.merge(b);
+                return a;
+            }));
+            policyCount += other.policyCount;
+            coolingOffCount += other.coolingOffCount;
+            skippedCount += other.skippedCount;
+            premiumKopecks += other.premiumKopecks;
+            refundKopecks += other.refundKopecks;
+        }
+
+        RefundSimulationResult toResult(RefundTerms terms, LocalDate asOf, long durationMs) {
+            List<RefundSimulationResult.Bucket> rows = new ArrayList<>(buckets.size());
+            buckets.forEach((key, bucket) -> rows.add(RefundSimulationResult.Bucket.builder()
+                    .category(key.category())
+                    .startMonth(key.startMonth())
+                    .policyCount(bucket.policyCount)
+                    .coolingOffCount(bucket.coolingOffCount)
+                    .totalPremium(Money.ofKopecks(bucket.premiumKopecks).toBigDecimal())
+                    .totalRefund(Money.ofKopecks(bucket.refundKopecks).toBigDecimal())
+                    .build()));
+            rows.sort(Comparator.comparing(RefundSimulationResult.Bucket::getCategory)
+                    .thenComparing(RefundSimulationResult.Bucket::getStartMonth));
+            return RefundSimulationResult.builder()
+                    .asOf(asOf)
+                    .coolingOffDays(terms.coolingOffDays())
+                    .adminFeePercent(terms.adminFeePercent())
+                    .policyCount(policyCount)
+                    .coolingOffCount(coolingOffCount)
+                    .skippedCount(skippedCount)
+                    .totalPremium(Money.ofKopecks(premiumKopecks).toBigDecimal())
+                    .totalRefund(Money.ofKopecks(refundKopecks).toBigDecimal())
+                    .buckets(rows)
+                    .generatedAt(LocalDateTime.now())
+                    .durationMs(durationMs)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.strahovka.service;
+
+import com.strahovka.entity.Insurance.KaskoApplication;
+import com.strahovka.entity.Insurance.OsagoApplication;
+import com.strahovka.util.Money;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Precompiled KASKO/OSAGO tariffs.
+ * <p>
+ * Coefficients are read from the {@code tariff.*} properties once at startup (or on {@link #reload()})
+ * and folded into immutable lookup tables, so a price request is a bucket search plus an array read.
+ * Results are identical to the former per-call BigDecimal arithmetic in {@link InsuranceService}.
+ * Prices are not cached: a table read and one multiply are cheaper than building a key and looking it up.
+ * Every reload publishes a {@link TariffsReloadedEvent}.
+ */
+@Service
+public class TariffEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(TariffEngine.class);
+
+    static final int MAX_TABULATED_DURATION = 60;
+    private static final int DEFAULT_DURATION = 12;
+    private static final BigDecimal MONTHS_IN_YEAR = BigDecimal.valueOf(DEFAULT_DURATION);
+    private static final int KASKO_FACTOR_SCALE = 4;
+    private static final long KASKO_FACTOR_UNITS = 10_000;
+
+    private final Environment environment;
+    private final ApplicationEventPublisher eventPublisher;
+    private volatile Tables tables;
+
+    public TariffEngine(Environment environment, ApplicationEventPublisher eventPublisher) {
+        this.environment = environment;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public synchronized void reload() {
+        long newVersion = tables != null ? tables.version + 1 : 1;
+        this.tables = Tables.load(environment, newVersion);
+        log.info("Tariff tables loaded, version {}", newVersion);
+        eventPublisher.publishEvent(new TariffsReloadedEvent(newVersion));
+    }
+
+    public long getVersion() {
+        return tables.version;
+    }
+
+    public BigDecimal priceKasko(KaskoApplication app) {
+        return kaskoPrice(app.getCarValue(), app.getCarYear(), app.getDriverExperienceYears(),
+                app.getHasAntiTheftSystem(), app.getGarageParking(), app.getDuration());
+    }
+
+    public BigDecimal priceOsago(OsagoApplication app) {
+        return osagoPrice(app.getEnginePower(), app.getDriverExperienceYears(), app.getIsUnlimitedDrivers(), app.getDuration());
+    }
+
+    public BigDecimal kaskoPrice(BigDecimal carValue, Integer carYear, Integer driverExperienceYears,
+                                 Boolean hasAntiTheftSystem, Boolean garageParking, Integer duration) {
+        if (carValue == null) return BigDecimal.ZERO;
+        Tables t = tables;
+        int age = carYear != null ? t.kaskoAgeBucket(LocalDate.now().getYear() - carYear) : 0;
+        int experience = driverExperienceYears != null ? t.kaskoExperienceBucket(driverExperienceYears) : 0;
+        int antiTheft = Boolean.TRUE.equals(hasAntiTheftSystem) ? 1 : 0;
+        int garage = Boolean.TRUE.equals(garageParking) ? 1 : 0;
+        if (t.kaskoFactorUnits != null && Money.isExact(carValue)) {
+            try {
+                return kaskoPriceInKopecks(Money.of(carValue).kopecks(), t.kaskoFactorUnits[age][experience][antiTheft][garage], duration)
+                        .toBigDecimal();
+            } catch (ArithmeticException overflow) {
+                // out of long range, use the BigDecimal path below
+            }
+        }
+        BigDecimal factor = t.kaskoFactors[age][experience][antiTheft][garage];
+        BigDecimal calculatedPrice = carValue.multiply(factor);
+        if (duration != null && duration != DEFAULT_DURATION) {
+            calculatedPrice = calculatedPrice.divide(MONTHS_IN_YEAR, 2, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(duration));
+        }
+        return calculatedPrice.max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /** carValue (kopecks) x factor (1/10000 units), same rounding steps as the BigDecimal path. */
+    private static Money kaskoPriceInKopecks(long carValueKopecks, long factorUnits, Integer duration) {
+        long annual = Math.multiplyExact(carValueKopecks, factorUnits);
+        Money price = duration != null && duration != DEFAULT_DURATION
+                ? Money.ofKopecks(Money.divideHalfUp(annual, DEFAULT_DURATION * KASKO_FACTOR_UNITS)).times(duration)
+                : Money.ofKopecks(Money.divideHalfUp(annual, KASKO_FACTOR_UNITS));
+        return price.max(Money.ZERO);
+    }
+
+    public BigDecimal osagoPrice(Integer enginePower, Integer driverExperienceYears, Boolean unlimitedDrivers, Integer duration) {
+        Tables t = tables;
+        int power = enginePower != null ? t.osagoPowerBucket(enginePower) : 0;
+        int experience = driverExperienceYears != null ? t.osagoExperienceBucket(driverExperienceYears) : 0;
+        int drivers = Boolean.TRUE.equals(unlimitedDrivers) ? 1 : 0;
+        if (duration == null || duration == DEFAULT_DURATION) {
+            return t.osagoAnnual[power][experience][drivers];
+        }
+        if (duration >= 1 && duration <= MAX_TABULATED_DURATION) {
+            return t.osagoByDuration[power][experience][drivers][duration];
+        }
+        return t.osagoMonthly[power][experience][drivers].multiply(BigDecimal.valueOf(duration)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    public record TariffsReloadedEvent(long version) {
+    }
+
+    /**
+     * Immutable snapshot of all coefficient tables. Bucket 0 of every axis stands for "value not provided".
+     */
+    static final class Tables {
+        final long version;
+        final int[] osagoPowerLimits;
+        final int[] osagoExperienceLimits;
+        final BigDecimal[][][] osagoAnnual;
+        final BigDecimal[][][] osagoMonthly;
+        final BigDecimal[][][][] osagoByDuration;
+
+        final int[] kaskoAgeLimits;
+        final int[] kaskoExperienceLimits;
+        final BigDecimal[][][][] kaskoFactors;
+        /** kaskoFactors x 10^4, or null when some factor has more than four decimals. */
+        final long[][][][] kaskoFactorUnits;
+
+        private Tables(long version, int[] osagoPowerLimits, int[] osagoExperienceLimits, BigDecimal[][][] osagoAnnual,
+                       BigDecimal[][][] osagoMonthly, BigDecimal[][][][] osagoByDuration,
+                       int[] kaskoAgeLimits, int[] kaskoExperienceLimits, BigDecimal[][][][] kaskoFactors,
+                       long[][][][] kaskoFactorUnits) {
+            this.version = version;
+            this.osagoPowerLimits = osagoPowerLimits;
+            this.osagoExperienceLimits = osagoExperienceLimits;
+            this.osagoAnnual = osagoAnnual;
+            this.osagoMonthly = osagoMonthly;
+            this.osagoByDuration = osagoByDuration;
+            this.kaskoAgeLimits = kaskoAgeLimits;
+            this.kaskoExperienceLimits = kaskoExperienceLimits;
+            this.kaskoFactors = kaskoFactors;
+            this.kaskoFactorUnits = kaskoFactorUnits;
+        }
+
+        /** enginePower &lt;= limit[i] selects bucket i + 1, anything above the last limit the final bucket. */
+        int osagoPowerBucket(int enginePower) {
+            for (int i = 0; i < osagoPowerLimits.length; i++) {
+                if (enginePower <= osagoPowerLimits[i]) return i + 1;
+            }
+            return osagoPowerLimits.length + 1;
+        }
+
+        /** experience &lt; limit[i] selects bucket i + 1. */
+        int osagoExperienceBucket(int experience) {
+            for (int i = 0; i < osagoExperienceLimits.length; i++) {
+                if (experience < osagoExperienceLimits[i]) return i + 1;
+            }
+            return osagoExperienceLimits.length + 1;
+        }
+
+        /** Limits are descending, carAge &gt; limit[i] selects bucket i + 1; newer cars stay in bucket 0. */
+        int kaskoAgeBucket(int carAge) {
+            for (int i = 0; i < kaskoAgeLimits.length; i++) {
+                if (carAge > kaskoAgeLimits[i]) return i + 1;
+            }
+            return 0;
+        }
+
+        /** experience &lt; limit[i] selects bucket i + 1; experienced drivers stay in bucket 0. */
+        int kaskoExperienceBucket(int experience) {
+            for (int i = 0; i < kaskoExperienceLimits.length; i++) {
+                if (experience < kaskoExperienceLimits[i]) return i + 1;
+            }
+            return 0;
+        }
+
+        static Tables load(Environment env, long version) {
+            BigDecimal baseRate = decimal(env, "tariff.osago.base-rate", "4118.00");
+            int[] powerLimits = ints(env, "tariff.osago.power-limits", "50,70,100,120,150");
+            BigDecimal[] powerCoefficients = withDefault(
+                    decimal(env, "tariff.osago.power-default", "1.0"),
+                    decimals(env, "tariff.osago.power-coefficients", "0.6,1.0,1.1,1.2,1.4,1.6"), powerLimits.length + 1);
+            int[] experienceLimits = ints(env, "tariff.osago.experience-limits", "1,2,3,5,10");
+            BigDecimal[] experienceCoefficients = withDefault(
+                    decimal(env, "tariff.osago.experience-default", "1.87"),
+                    decimals(env, "tariff.osago.experience-coefficients", "1.93,1.88,1.72,1.65,1.62,1.60"), experienceLimits.length + 1);
+            BigDecimal[] driversCoefficients = {
+                    decimal(env, "tariff.osago.limited-drivers", "1.0"),
+                    decimal(env, "tariff.osago.unlimited-drivers", "2.32")
+            };
+
+            BigDecimal[][][] annual = new BigDecimal[powerCoefficients.length][experienceCoefficients.length][2];
+            BigDecimal[][][] monthly = new BigDecimal[powerCoefficients.length][experienceCoefficients.length][2];
+            BigDecimal[][][][] byDuration = new BigDecimal[powerCoefficients.length][experienceCoefficients.length][2][MAX_TABULATED_DURATION + 1];
+            for (int p = 0; p < powerCoefficients.length; p++) {
+                for (int e = 0; e < experienceCoefficients.length; e++) {
+                    for (int d = 0; d < 2; d++) {
+                        BigDecimal price = baseRate.multiply(powerCoefficients[p]).multiply(experienceCoefficients[e]).multiply(driversCoefficients[d]);
+                        annual[p][e][d] = price.setScale(2, RoundingMode.HALF_UP);
+                        monthly[p][e][d] = price.divide(MONTHS_IN_YEAR, 2, RoundingMode.HALF_UP);
+                        for (int months = 1; months <= MAX_TABULATED_DURATION; months++) {
+                            byDuration[p][e][d][months] = months == DEFAULT_DURATION
+                                    ? annual[p][e][d]
+                                    : monthly[p][e][d].multiply(BigDecimal.valueOf(months)).setScale(2, RoundingMode.HALF_UP);
+                        }
+                    }
+                }
+            }
+
+            BigDecimal kaskoBaseRate = decimal(env, "tariff.kasko.base-rate", "0.05");
+            int[] ageLimits = ints(env, "tariff.kasko.age-limits", "10,5");
+            BigDecimal[] ageSurcharges = withDefault(BigDecimal.ZERO,
+                    decimals(env, "tariff.kasko.age-surcharges", "0.10,0.05"), ageLimits.length);
+            int[] kaskoExperienceLimits = ints(env, "tariff.kasko.experience-limits", "3,5");
+            BigDecimal[] experienceSurcharges = withDefault(BigDecimal.ZERO,
+                    decimals(env, "tariff.kasko.experience-surcharges", "0.15,0.07"), kaskoExperienceLimits.length);
+            BigDecimal antiTheftDiscount = decimal(env, "tariff.kasko.anti-theft-discount", "0.05");
+            BigDecimal garageDiscount = decimal(env, "tariff.kasko.garage-discount", "0.03");
+
+            BigDecimal[][][][] kaskoFactors = new BigDecimal[ageSurcharges.length][experienceSurcharges.length][2][2];
+            long[][][][] kaskoFactorUnits = new long[ageSurcharges.length][experienceSurcharges.length][2][2];
+            boolean factorsFitUnits = true;
+            for (int a = 0; a < ageSurcharges.length; a++) {
+                for (int e = 0; e < experienceSurcharges.length; e++) {
+                    for (int t = 0; t < 2; t++) {
+                        for (int g = 0; g < 2; g++) {
+                            BigDecimal multiplier = BigDecimal.ONE.add(ageSurcharges[a]).add(experienceSurcharges[e]);
+                            if (t == 1) multiplier = multiplier.subtract(antiTheftDiscount);
+                            if (g == 1) multiplier = multiplier.subtract(garageDiscount);
+                            kaskoFactors[a][e][t][g] = kaskoBaseRate.multiply(multiplier);
+                            BigDecimal units = kaskoFactors[a][e][t][g].movePointRight(KASKO_FACTOR_SCALE);
+                            if (units.stripTrailingZeros().scale() > 0 || units.abs().compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) > 0) {
+                                factorsFitUnits = false;
+                            } else {
+                                kaskoFactorUnits[a][e][t][g] = units.longValue();
+                            }
+                        }
+                    }
+                }
+            }
+
+            return new Tables(version, powerLimits, experienceLimits, annual, monthly, byDuration,
+                    ageLimits, kaskoExperienceLimits, kaskoFactors, factorsFitUnits ? kaskoFactorUnits : null);
+        }
+
+        private static BigDecimal[] withDefault(BigDecimal defaultValue, BigDecimal[] values, int expectedLength) {
+            if (values.length != expectedLength) {
+                throw new IllegalStateException("Tariff table expects " + expectedLength + " coefficients but got " + values.length);
+            }
+            BigDecimal[] result = new BigDecimal[values.length + 1];
+            result[0] = defaultValue;
+            System.arraycopy(values, 0, result, 1, values.length);
+            return result;
+        }
+
+        private static BigDecimal decimal(Environment env, String key, String defaultValue) {
+            return new BigDecimal(env.getProperty(key, defaultValue).trim());
+        }
+
+        private static BigDecimal[] decimals(Environment env, String key, String defaultValue) {
+            String[] parts = env.getProperty(key, defaultValue).split(",");
+            BigDecimal[] result = new BigDecimal[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                result[i] = new BigDecimal(parts[i].trim());
+            }
+            return result;
+        }
+
+        private static int[] ints(Environment env, String key, String defaultValue) {
+            String[] parts = env.getProperty(key, defaultValue).split(",");
+            int[] result = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                result[i] = Integer.parseInt(parts[i].trim());
+            }
+            return result;
+        }
+    }
+}
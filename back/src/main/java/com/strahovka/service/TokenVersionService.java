@@ -0,0 +1,69 @@
+package com.strahovka.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Per-user token version used to revoke stateless JWTs.
+ * <p>
+ * Tokens carry the version current at issue time; a token is accepted only while it still matches
+ * {@code users.token_version}. Versions are cached in memory, so authentication costs no query on a hit.
+ * A bump evicts the local entry after commit; other instances see it within {@code jwt.version-cache.ttl}.
+ */
+@Service
+public class TokenVersionService {
+
+    /** Version reported for a user that no longer exists; never matches a token. */
+    public static final int UNKNOWN_USER = -1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<Long, Integer> versions;
+
+    public TokenVersionService(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                               @Value("${jwt.version-cache.max-size:100000}") long maxSize,
+                               @Value("${jwt.version-cache.ttl:30s}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.versions = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "jwt.versions");
+    }
+
+    public int current(long userId) {
+        return versions.get(userId, this::load);
+    }
+
+    /** Revokes every token issued to the user so far; joins the caller's transaction if there is one. */
+    @Transactional
+    public void bump(long userId) {
+        jdbcTemplate.update("UPDATE users SET token_version = token_version + 1 WHERE id = ?", userId);
+        evict(userId);
+    }
+
+    /** Drops the cached version now and, inside a transaction, again after commit. */
+    public void evict(long userId) {
+        versions.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private Integer load(Long userId) {
+        List<Integer> rows = jdbcTemplate.queryForList("SELECT token_version FROM users WHERE id = ?", Integer.class, userId);
+        return rows.isEmpty() ? UNKNOWN_USER : rows.get(0);
+    }
+}
@@ -4,36 +4,30 @@ import com.strahovka.entity.User;
 import com.strahovka.enums.Role;
 import com.strahovka.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
 
+import java.util.List;
 import java.util.Optional;
-import java.util.Date;
-import javax.crypto.SecretKey;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
+    /** Only replaces the hash that was verified, so a concurrent change is not overwritten. */
+    private static final String UPDATE_PASSWORD = """
+            UPDATE users SET password = ? WHERE email = ? AND password = ?
+            """;
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-    
-    private static final long ACCESS_TOKEN_EXPIRATION = 24 * 60 * 60 * 1000; // 24 hours
-    private static final long REFRESH_TOKEN_EXPIRATION = 7 * 24 * 60 * 60 * 1000; // 7 days
-
-    private SecretKey getSigningKey() {
-        return Keys.secretKeyFor(SignatureAlgorithm.HS512);
-    }
+    private final PasswordHashingService passwordHashingService;
+    private final JdbcTemplate jdbcTemplate;
 
-    @Transactional
+    /** Hashes first and only then queries, so the BCrypt wait happens with no connection checked out. */
     public User registerUser(User user) {
+        String rawPassword = user.getPassword();
+        String passwordHash = passwordHashingService.encode(rawPassword);
+
         if (userRepository.findByEmail(user.getEmail()).isPresent()) {
             throw new RuntimeException("Пользователь с таким email уже существует");
         }
@@ -43,16 +37,7 @@ public class UserService {
         user.setRole(Role.USER);
         }
 
-        String rawPassword = user.getPassword();
-        user.setPassword(passwordEncoder.encode(rawPassword));
-
-        user = userRepository.save(user);
-
-        String accessToken = generateAccessToken(user);
-        String refreshToken = generateRefreshToken(user);
-
-        user.setAccessToken(accessToken);
-        user.setRefreshToken(refreshToken);
+        user.setPassword(passwordHash);
 
         return userRepository.save(user);
     }
@@ -87,36 +72,16 @@ public class UserService {
         return userRepository.save(user);
     }
 
-    public String generateAccessToken(User user) {
-        return Jwts.builder()
-                .setSubject(user.getEmail())
-                .claim("userId", user.getId())
-                .claim("role", user.getRole())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + ACCESS_TOKEN_EXPIRATION))
-                .signWith(getSigningKey())
-                .compact();
-    }
-
-    public String generateRefreshToken(User user) {
-        return Jwts.builder()
-                .setSubject(user.getEmail())
-                .claim("userId", user.getId())
-                .claim("type", "refresh")
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + REFRESH_TOKEN_EXPIRATION))
-                .signWith(getSigningKey())
-                .compact();
-    }
-
     public User createUser(String email, String password, String firstName, String lastName) {
+        String passwordHash = passwordHashingService.encode(password);
+
         if (userRepository.existsByEmail(email)) {
             throw new RuntimeException("Email already exists");
         }
 
         User user = User.builder()
                 .email(email)
-                .password(passwordEncoder.encode(password))
+                .password(passwordHash)
                 .firstName(firstName)
                 .lastName(lastName)
                 .role(Role.USER)
@@ -124,4 +89,20 @@ public class UserService {
 
         return userRepository.save(user);
     }
+
+    /**
+     * Replaces the password after verifying the current one; false when it does not match. Plain JDBC outside
+     * any transaction, so no connection is held while BCrypt runs.
+     */
+    public boolean changePassword(String email, String currentPassword, String newPassword) {
+        List<String> hashes = jdbcTemplate.queryForList("SELECT password FROM users WHERE email = ?", String.class, email);
+        if (hashes.isEmpty()) {
+            throw new RuntimeException("User not found");
+        }
+        String currentHash = hashes.get(0);
+        if (currentHash == null || !passwordHashingService.matches(currentPassword, currentHash)) {
+            return false;
+        }
+        return jdbcTemplate.update(UPDATE_PASSWORD, passwordHashingService.encode(newPassword), email, currentHash) == 1;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.strahovka.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.strahovka.util.TokenHashes;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.function.Function;
+
+/**
+ * Claims of tokens whose signature has already been verified, keyed by the SHA-256 of the whole token.
+ * <p>
+ * An entry lives until the token's own {@code exp}, capped at {@code maxTtl}, so a hit never outlives the
+ * token and a repeated Bearer token skips the HMAC check. Only successfully verified tokens are stored.
+ * The returned claims are shared between requests and must not be modified.
+ */
+public class VerifiedTokenCache {
+
+    private final Cache<String, Claims> claims;
+
+    public VerifiedTokenCache(long maxSize, Duration maxTtl) {
+        long maxTtlNanos = maxTtl.toNanos();
+        this.claims = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims value, long currentTime) {
+                        Date expiration = value.getExpiration();
+                        if (expiration == null) return maxTtlNanos;
+                        long remaining = Duration.ofMillis(expiration.getTime() - System.currentTimeMillis()).toNanos();
+                        return Math.max(0, Math.min(remaining, maxTtlNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /** Cached claims of {@code token}, or the result of {@code verifier}, which throws for an invalid token. */
+    public Claims get(String token, Function<String, Claims> verifier) {
+        String key = TokenHashes.sha256Hex(token);
+        Claims cached = claims.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Claims verified = verifier.apply(token);
+        claims.put(key, verified);
+        return verified;
+    }
+
+    public void monitor(MeterRegistry meterRegistry, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, claims, name);
+    }
+}
@@ -0,0 +1,72 @@
+package com.strahovka.util;
+
+import com.strahovka.entity.Insurance.BaseApplication;
+import com.strahovka.entity.Insurance.HealthApplication;
+import com.strahovka.entity.Insurance.KaskoApplication;
+import com.strahovka.entity.Insurance.OsagoApplication;
+import com.strahovka.entity.Insurance.PropertyApplication;
+import com.strahovka.entity.Insurance.TravelApplication;
+import jakarta.persistence.DiscriminatorValue;
+import org.hibernate.Hibernate;
+
+import java.math.BigDecimal;
+
+/**
+ * Type code and user-facing label of an application, shared by package details and the application summary.
+ * The backfill in {@code V126__application_summary.sql} builds the same labels in SQL.
+ */
+public final class ApplicationLabels {
+
+    private static final String NO_DETAILS = "(детали не указаны)";
+
+    private ApplicationLabels() {
+    }
+
+    /** Discriminator value (KASKO, OSAGO, ...) or null if the class has none. */
+    public static String type(BaseApplication application) {
+        DiscriminatorValue discriminatorValue = Hibernate.getClass(application).getAnnotation(DiscriminatorValue.class);
+        return discriminatorValue != null ? discriminatorValue.value() : null;
+    }
+
+    /**
+     * @param holderName shown for health applications without a coverage type; may be null
+     */
+    public static String displayName(BaseApplication app, String holderName) {
+        if (app instanceof KaskoApplication kasko) {
+            return "КАСКО: " + (hasText(kasko.getCarMake()) && hasText(kasko.getCarModel())
+                    ? kasko.getCarMake() + " " + kasko.getCarModel() : NO_DETAILS);
+        }
+        if (app instanceof OsagoApplication osago) {
+            return "ОСАГО: " + (hasText(osago.getCarMake()) && hasText(osago.getCarModel())
+                    ? osago.getCarMake() + " " + osago.getCarModel() : NO_DETAILS);
+        }
+        if (app instanceof HealthApplication health) {
+            if (hasText(health.getCoverageType())) {
+                BigDecimal coverageAmount = health.getCoverageAmount();
+                String amountStr = coverageAmount != null ? coverageAmount.toPlainString() : "N/A";
+                return "Здоровье: " + health.getCoverageType() + " (до " + amountStr + "₽)";
+            }
+            return "Здоровье: " + (holderName != null ? holderName : NO_DETAILS);
+        }
+        if (app instanceof TravelApplication travel) {
+            String destination = travel.getDestinationCountry();
+            if (hasText(destination) && hasText(travel.getPurposeOfTrip())) {
+                return "Путешествия: " + destination + " (" + travel.getPurposeOfTrip() + ")";
+            }
+            return "Путешествия: " + (hasText(destination) ? destination : NO_DETAILS);
+        }
+        if (app instanceof PropertyApplication property) {
+            String propertyType = property.getPropertyType();
+            if (hasText(propertyType) && hasText(property.getAddress())) {
+                return "Недвижимость: " + propertyType + " (" + property.getAddress() + ")";
+            }
+            return "Недвижимость: " + (hasText(propertyType) ? propertyType : NO_DETAILS);
+        }
+        String type = type(app);
+        return type != null ? type : "Тип не определен";
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+}
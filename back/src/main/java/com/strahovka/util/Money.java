@@ -0,0 +1,105 @@
+package com.strahovka.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable fixed-point amount in kopecks.
+ * <p>
+ * All divisions round HALF_UP (ties away from zero, for both signs) so results match
+ * {@code BigDecimal.setScale(2, RoundingMode.HALF_UP)} of the exact value. Entities and JSON keep using
+ * {@link BigDecimal}; convert with {@link #of(BigDecimal)} and {@link #toBigDecimal()} at that boundary.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    /** Largest precision (in digits) of a scale-2 amount that is safe to multiply by small factors. */
+    private static final int MAX_EXACT_PRECISION = 16;
+
+    private final long kopecks;
+
+    private Money(long kopecks) {
+        this.kopecks = kopecks;
+    }
+
+    public static Money ofKopecks(long kopecks) {
+        return kopecks == 0 ? ZERO : new Money(kopecks);
+    }
+
+    /** Converts a ruble amount, rounding HALF_UP to whole kopecks. */
+    public static Money of(BigDecimal amount) {
+        return ofKopecks(amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * True when {@code amount} converts to kopecks without rounding and with enough headroom that
+     * percentage and per-day arithmetic on it cannot overflow.
+     */
+    public static boolean isExact(BigDecimal amount) {
+        return amount.scale() <= 2 && amount.precision() - amount.scale() + 2 <= MAX_EXACT_PRECISION;
+    }
+
+    public long kopecks() {
+        return kopecks;
+    }
+
+    public Money plus(Money other) {
+        return ofKopecks(Math.addExact(kopecks, other.kopecks));
+    }
+
+    public Money minus(Money other) {
+        return ofKopecks(Math.subtractExact(kopecks, other.kopecks));
+    }
+
+    public Money times(long factor) {
+        return ofKopecks(Math.multiplyExact(kopecks, factor));
+    }
+
+    /** {@code percent}% of this amount, rounded HALF_UP to kopecks. */
+    public Money percent(long percent) {
+        return ofKopecks(divideHalfUp(Math.multiplyExact(kopecks, percent), 100));
+    }
+
+    public Money max(Money other) {
+        return kopecks >= other.kopecks ? this : other;
+    }
+
+    public boolean isNegative() {
+        return kopecks < 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(kopecks, 2);
+    }
+
+    /** {@code dividend / divisor} rounded HALF_UP; {@code divisor} must be positive. */
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) >= divisor - Math.abs(remainder)) {
+            quotient += dividend < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(kopecks, other.kopecks);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof Money other && kopecks == other.kopecks;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(kopecks);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
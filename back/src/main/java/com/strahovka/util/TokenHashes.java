@@ -0,0 +1,26 @@
+package com.strahovka.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Lookup keys for bearer secrets. Tokens are stored and cached only as their SHA-256, never in clear; a plain
+ * digest is enough because the tokens themselves carry far more entropy than a password.
+ */
+public final class TokenHashes {
+
+    private TokenHashes() {
+    }
+
+    /** Lower-case hex SHA-256 of the UTF-8 bytes, 64 characters. */
+    public static String sha256Hex(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
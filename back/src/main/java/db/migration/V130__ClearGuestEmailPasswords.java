@@ -0,0 +1,62 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Guest accounts created before V129 got bcrypt(email) as their password, which anyone can guess. They had an
+ * empty last name; the hash is verified here and such accounts become passwordless guests. Their owners set a
+ * password through the claim link mailed on their next application, or requested at {@code /api/auth/claim-link}.
+ * The check runs in Java because doing it in SQL needs {@code pgcrypto}, and creating that extension needs
+ * privileges the application's database user does not have.
+ */
+public class V130__ClearGuestEmailPasswords extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String SELECT_CANDIDATES = """
+            SELECT id, email, password FROM users
+            WHERE role = 'USER' AND last_name = '' AND password LIKE '$2a$%' AND id > ?
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private static final String CLEAR_PASSWORD = """
+            UPDATE users SET password = NULL WHERE id = ? AND password = ?
+            """;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        Connection connection = context.getConnection();
+        try (PreparedStatement select = connection.prepareStatement(SELECT_CANDIDATES);
+             PreparedStatement clear = connection.prepareStatement(CLEAR_PASSWORD)) {
+            long lastId = 0;
+            int rows;
+            do {
+                rows = 0;
+                select.setLong(1, lastId);
+                select.setInt(2, BATCH_SIZE);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        lastId = rs.getLong("id");
+                        String passwordHash = rs.getString("password");
+                        if (passwordEncoder.matches(rs.getString("email"), passwordHash)) {
+                            clear.setLong(1, lastId);
+                            clear.setString(2, passwordHash);
+                            clear.addBatch();
+                        }
+                    }
+                }
+                clear.executeBatch();
+            } while (rows == BATCH_SIZE);
+        }
+    }
+}
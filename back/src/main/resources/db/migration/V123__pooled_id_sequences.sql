@@ -0,0 +1,26 @@
+-- Switch primary keys to pooled sequences so Hibernate can batch inserts.
+-- Each nextval reserves a block of 50 ids (pooled-lo): the application hands out
+-- [value, value + 49] itself, while plain INSERTs using the column default simply
+-- skip the rest of their block, so both can write to the same table safely.
+DO $$
+DECLARE
+    tbl TEXT;
+    seq TEXT;
+BEGIN
+    FOREACH tbl IN ARRAY ARRAY[
+        'users', 'insurance_policies', 'insurance_packages', 'insurance_categories', 'insurance_guides',
+        'base_applications', 'insurance_claims', 'claim_attachments', 'claim_messages', 'claim_comments'
+    ] LOOP
+        seq := pg_get_serial_sequence(tbl, 'id');
+        IF seq IS NULL THEN
+            EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I', tbl || '_id_seq');
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', tbl, tbl || '_id_seq');
+            EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.id', tbl || '_id_seq', tbl);
+        ELSIF seq <> 'public.' || tbl || '_id_seq' THEN
+            EXECUTE format('ALTER SEQUENCE %s RENAME TO %I', seq, tbl || '_id_seq');
+        END IF;
+
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', tbl || '_id_seq');
+        EXECUTE format('SELECT setval(%L, COALESCE((SELECT MAX(id) FROM %I), 0) + 1, false)', tbl || '_id_seq', tbl);
+    END LOOP;
+END $$;
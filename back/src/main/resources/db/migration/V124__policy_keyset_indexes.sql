@@ -0,0 +1,8 @@
+-- created_at is the keyset for paged policy listings and must never be null
+ALTER TABLE insurance_policies ADD COLUMN IF NOT EXISTS created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP;
+UPDATE insurance_policies SET created_at = COALESCE(start_date::timestamp, CURRENT_TIMESTAMP) WHERE created_at IS NULL;
+ALTER TABLE insurance_policies ALTER COLUMN created_at SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE insurance_policies ALTER COLUMN created_at SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_insurance_policies_created_id ON insurance_policies (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_insurance_policies_user_created_id ON insurance_policies (user_id, created_at DESC, id DESC);
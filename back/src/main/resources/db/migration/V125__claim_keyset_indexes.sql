@@ -0,0 +1,7 @@
+-- created_at is the keyset for claim listings and moderator queues and must never be null
+UPDATE insurance_claims SET created_at = COALESCE(processed_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL;
+ALTER TABLE insurance_claims ALTER COLUMN created_at SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE insurance_claims ALTER COLUMN created_at SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_insurance_claims_created_id ON insurance_claims (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_insurance_claims_status_created_id ON insurance_claims (status, created_at DESC, id DESC);
@@ -0,0 +1,53 @@
+-- Read model for "my applications": one row per application, kept current by the application
+-- entity listener. The foreign key is deferred because the summary row can be written before a
+-- batched insert of the application itself reaches the database.
+CREATE TABLE application_summary (
+    application_id BIGINT PRIMARY KEY,
+    user_id BIGINT,
+    email VARCHAR(255),
+    application_type VARCHAR(20) NOT NULL,
+    status VARCHAR(50),
+    calculated_amount NUMERIC(12, 2),
+    start_date DATE,
+    end_date DATE,
+    application_date TIMESTAMP,
+    display_label VARCHAR(500),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_application_summary_application FOREIGN KEY (application_id)
+        REFERENCES base_applications(id) ON DELETE CASCADE DEFERRABLE INITIALLY DEFERRED
+);
+
+CREATE INDEX idx_application_summary_user ON application_summary (user_id, application_date DESC, application_id DESC);
+
+-- Backfill; labels match ApplicationLabels.displayName
+INSERT INTO application_summary (application_id, user_id, email, application_type, status, calculated_amount,
+                                 start_date, end_date, application_date, display_label)
+SELECT b.id, b.user_id, b.email, b.application_type, b.status, b."calculatedAmount",
+       b."startDate", b."endDate", b."applicationDate",
+       CASE b.application_type
+           WHEN 'KASKO' THEN 'КАСКО: ' || CASE WHEN COALESCE(k.car_make, '') <> '' AND COALESCE(k.car_model, '') <> ''
+                                              THEN k.car_make || ' ' || k.car_model ELSE '(детали не указаны)' END
+           WHEN 'OSAGO' THEN 'ОСАГО: ' || CASE WHEN COALESCE(o.car_make, '') <> '' AND COALESCE(o.car_model, '') <> ''
+                                              THEN o.car_make || ' ' || o.car_model ELSE '(детали не указаны)' END
+           WHEN 'HEALTH' THEN 'Здоровье: ' || CASE WHEN COALESCE(h.coverage_type, '') <> ''
+                                                  THEN h.coverage_type || ' (до ' || COALESCE(h.coverage_amount::text, 'N/A') || '₽)'
+                                                  ELSE '(детали не указаны)' END
+           WHEN 'TRAVEL' THEN 'Путешествия: ' || CASE
+                                  WHEN COALESCE(t.destination_country, '') <> '' AND COALESCE(t.purpose_of_trip, '') <> ''
+                                      THEN t.destination_country || ' (' || t.purpose_of_trip || ')'
+                                  WHEN COALESCE(t.destination_country, '') <> '' THEN t.destination_country
+                                  ELSE '(детали не указаны)' END
+           WHEN 'PROPERTY' THEN 'Недвижимость: ' || CASE
+                                  WHEN COALESCE(p.property_type, '') <> '' AND COALESCE(p.address, '') <> ''
+                                      THEN p.property_type || ' (' || p.address || ')'
+                                  WHEN COALESCE(p.property_type, '') <> '' THEN p.property_type
+                                  ELSE '(детали не указаны)' END
+           ELSE b.application_type
+       END
+FROM base_applications b
+LEFT JOIN kasko_applications k ON k.id = b.id
+LEFT JOIN osago_applications o ON o.id = b.id
+LEFT JOIN health_applications h ON h.id = b.id
+LEFT JOIN travel_applications t ON t.id = b.id
+LEFT JOIN property_applications p ON p.id = b.id
+WHERE b.application_type IS NOT NULL;
@@ -0,0 +1,2 @@
+-- Signed into every JWT as "ver"; bumping it revokes all tokens issued to the user before the bump.
+ALTER TABLE users ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,36 @@
+-- Refresh tokens move out of the users row into an append-only store of SHA-256 hashes.
+-- Rotation inserts the successor into the same family; only the newest token of a family is accepted,
+-- and presenting an older one revokes the family. Expired rows are purged by RefreshTokenPurgeJob.
+-- The foreign key is deferred because a token can be issued before the insert of a new user is flushed.
+CREATE TABLE refresh_tokens (
+    id BIGSERIAL PRIMARY KEY,
+    token_hash CHAR(64) NOT NULL,
+    family_id UUID NOT NULL,
+    user_id BIGINT NOT NULL,
+    issued_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id)
+        REFERENCES users(id) ON DELETE CASCADE DEFERRABLE INITIALLY DEFERRED
+);
+
+CREATE UNIQUE INDEX idx_refresh_tokens_hash ON refresh_tokens (token_hash);
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens (family_id, id);
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens (user_id);
+CREATE INDEX idx_refresh_tokens_expires ON refresh_tokens (expires_at);
+
+CREATE TABLE refresh_token_revocations (
+    family_id UUID PRIMARY KEY,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Keep current sessions: each stored refresh token becomes its own family. The JWT still carries the
+-- real expiry; the row expires after the default refresh lifetime of 7 days.
+INSERT INTO refresh_tokens (token_hash, family_id, user_id, expires_at)
+SELECT encode(sha256(convert_to(refresh_token, 'UTF8')), 'hex'), gen_random_uuid(), id,
+       CURRENT_TIMESTAMP + INTERVAL '7 days'
+FROM users
+WHERE refresh_token IS NOT NULL
+ON CONFLICT (token_hash) DO NOTHING;
+
+ALTER TABLE users DROP COLUMN access_token;
+ALTER TABLE users DROP COLUMN refresh_token;
@@ -0,0 +1,16 @@
+-- Guest accounts are created by the unauthorized application flows without a password. The owner sets
+-- one through a one-time claim token (AccountClaimService), stored as its SHA-256 like refresh tokens.
+ALTER TABLE users ALTER COLUMN password DROP NOT NULL;
+
+CREATE TABLE account_claim_tokens (
+    token_hash CHAR(64) PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_account_claim_tokens_user FOREIGN KEY (user_id)
+        REFERENCES users(id) ON DELETE CASCADE DEFERRABLE INITIALLY DEFERRED
+);
+
+CREATE INDEX idx_account_claim_tokens_expires ON account_claim_tokens (expires_at);
+
+-- Guest accounts created so far got bcrypt(email) as their password; V130 clears it.
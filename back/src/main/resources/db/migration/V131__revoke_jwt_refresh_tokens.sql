@@ -0,0 +1,9 @@
+-- Refresh tokens issued so far are JWTs with the user id, role and token version, which the stateless
+-- filter also accepts as access tokens. Bumping the version stops those of revoked families (replayed or
+-- logged out) from authenticating. Live ones keep working as refresh tokens: only their hash is looked up.
+UPDATE users SET token_version = token_version + 1
+WHERE id IN (
+    SELECT t.user_id
+    FROM refresh_tokens t
+    JOIN refresh_token_revocations r ON r.family_id = t.family_id
+);
@@ -0,0 +1,2 @@
+-- ClaimLinkMailer checks for a recent claim token per user before mailing another link.
+CREATE INDEX idx_account_claim_tokens_user ON account_claim_tokens (user_id, created_at);
@@ -0,0 +1,141 @@
+package com.strahovka.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Golden-value check of the precompiled tariff tables against the per-call BigDecimal formulas that
+ * {@code InsuranceService.calculateKaskoPrice/calculateOsagoPrice} used before the engine, over the whole
+ * parameter grid with the default coefficients.
+ */
+class TariffEngineTest {
+
+    private static final Integer[] DURATIONS = range(-2, 72);
+    private static final Boolean[] FLAGS = {null, Boolean.FALSE, Boolean.TRUE};
+
+    private TariffEngine tariffEngine;
+
+    @BeforeEach
+    void setUp() {
+        tariffEngine = new TariffEngine(new MockEnvironment(), event -> { });
+        tariffEngine.reload();
+    }
+
+    @Test
+    void osagoMatchesLegacyFormulaOverFullGrid() {
+        for (Integer enginePower : range(-5, 400)) {
+            for (Integer experience : range(-5, 40)) {
+                for (Boolean unlimitedDrivers : FLAGS) {
+                    for (Integer duration : DURATIONS) {
+                        assertEquals(legacyOsago(enginePower, experience, unlimitedDrivers, duration),
+                                tariffEngine.osagoPrice(enginePower, experience, unlimitedDrivers, duration),
+                                () -> "OSAGO power=" + enginePower + " experience=" + experience
+                                        + " unlimited=" + unlimitedDrivers + " duration=" + duration);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void kaskoMatchesLegacyFormulaOverFullGrid() {
+        Random random = new Random(42);
+        int currentYear = LocalDate.now().getYear();
+        for (Integer carYear : range(currentYear - 30, currentYear + 2)) {
+            for (Integer experience : range(-5, 20)) {
+                for (Boolean antiTheft : FLAGS) {
+                    for (Boolean garage : FLAGS) {
+                        for (Integer duration : DURATIONS) {
+                            BigDecimal carValue = randomCarValue(random);
+                            assertEquals(legacyKasko(carValue, carYear, experience, antiTheft, garage, duration),
+                                    tariffEngine.kaskoPrice(carValue, carYear, experience, antiTheft, garage, duration),
+                                    () -> "KASKO value=" + carValue + " year=" + carYear + " experience=" + experience
+                                            + " antiTheft=" + antiTheft + " garage=" + garage + " duration=" + duration);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void kaskoWithoutCarValueIsZero() {
+        assertEquals(BigDecimal.ZERO, tariffEngine.kaskoPrice(null, 2015, 3, true, false, 12));
+    }
+
+    /** Kopeck amounts up to 100M rubles, with every tenth value carrying extra decimals (the BigDecimal path). */
+    private static BigDecimal randomCarValue(Random random) {
+        BigDecimal value = BigDecimal.valueOf(random.nextLong(10_000_000_000L), 2);
+        if (random.nextInt(10) == 0) {
+            value = value.add(BigDecimal.valueOf(random.nextInt(1000), 5));
+        }
+        return value;
+    }
+
+    /** null ("not provided") followed by every value from {@code from} to {@code to}. */
+    private static Integer[] range(int from, int to) {
+        Integer[] values = new Integer[to - from + 2];
+        for (int i = from; i <= to; i++) {
+            values[i - from + 1] = i;
+        }
+        return values;
+    }
+
+    private static BigDecimal legacyKasko(BigDecimal carValue, Integer carYear, Integer driverExperienceYears,
+                                          Boolean hasAntiTheftSystem, Boolean garageParking, Integer duration) {
+        if (carValue == null) return BigDecimal.ZERO;
+        BigDecimal basePrice = carValue.multiply(new BigDecimal("0.05"));
+        BigDecimal calculatedPrice = basePrice;
+        if (carYear != null) {
+            int carAge = LocalDate.now().getYear() - carYear;
+            if (carAge > 10) calculatedPrice = calculatedPrice.add(basePrice.multiply(new BigDecimal("0.10")));
+            else if (carAge > 5) calculatedPrice = calculatedPrice.add(basePrice.multiply(new BigDecimal("0.05")));
+        }
+        if (driverExperienceYears != null) {
+            if (driverExperienceYears < 3) calculatedPrice = calculatedPrice.add(basePrice.multiply(new BigDecimal("0.15")));
+            else if (driverExperienceYears < 5) calculatedPrice = calculatedPrice.add(basePrice.multiply(new BigDecimal("0.07")));
+        }
+        if (Boolean.TRUE.equals(hasAntiTheftSystem)) calculatedPrice = calculatedPrice.subtract(basePrice.multiply(new BigDecimal("0.05")));
+        if (Boolean.TRUE.equals(garageParking)) calculatedPrice = calculatedPrice.subtract(basePrice.multiply(new BigDecimal("0.03")));
+        if (duration != null && duration != 12) {
+            calculatedPrice = calculatedPrice.divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(duration));
+        }
+        return calculatedPrice.max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal legacyOsago(Integer enginePower, Integer driverExperienceYears, Boolean unlimitedDrivers, Integer duration) {
+        BigDecimal baseRate = new BigDecimal("4118.00");
+        BigDecimal powerCoeff = new BigDecimal("1.0");
+        if (enginePower != null) {
+            if (enginePower <= 50) powerCoeff = new BigDecimal("0.6");
+            else if (enginePower <= 70) powerCoeff = new BigDecimal("1.0");
+            else if (enginePower <= 100) powerCoeff = new BigDecimal("1.1");
+            else if (enginePower <= 120) powerCoeff = new BigDecimal("1.2");
+            else if (enginePower <= 150) powerCoeff = new BigDecimal("1.4");
+            else powerCoeff = new BigDecimal("1.6");
+        }
+        BigDecimal ageExperienceCoeff = new BigDecimal("1.87");
+        if (driverExperienceYears != null) {
+            if (driverExperienceYears < 1) ageExperienceCoeff = new BigDecimal("1.93");
+            else if (driverExperienceYears < 2) ageExperienceCoeff = new BigDecimal("1.88");
+            else if (driverExperienceYears < 3) ageExperienceCoeff = new BigDecimal("1.72");
+            else if (driverExperienceYears < 5) ageExperienceCoeff = new BigDecimal("1.65");
+            else if (driverExperienceYears < 10) ageExperienceCoeff = new BigDecimal("1.62");
+            else ageExperienceCoeff = new BigDecimal("1.60");
+        }
+        BigDecimal driversCoeff = Boolean.TRUE.equals(unlimitedDrivers) ? new BigDecimal("2.32") : new BigDecimal("1.0");
+        BigDecimal calculatedPrice = baseRate.multiply(powerCoeff).multiply(ageExperienceCoeff).multiply(driversCoeff);
+        if (duration != null && duration != 12) {
+            calculatedPrice = calculatedPrice.divide(BigDecimal.valueOf(12), 2, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(duration));
+        }
+        return calculatedPrice.setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,107 @@
+package com.strahovka.util;
+
+import com.strahovka.entity.InsurancePolicy;
+import com.strahovka.entity.User;
+import com.strahovka.enums.UserLevel;
+import com.strahovka.service.PackagePricingService;
+import com.strahovka.service.RefundCalculator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Randomized comparison of the kopeck arithmetic against the BigDecimal formulas it replaced, which all end in
+ * {@code setScale(2, HALF_UP)}. Prices with more than two decimals are mixed in so the BigDecimal fallbacks
+ * are compared as well.
+ */
+class MoneyTest {
+
+    private static final int CASES = 200_000;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void divideHalfUpMatchesBigDecimalForBothSigns() {
+        for (int i = 0; i < CASES; i++) {
+            long dividend = random.nextLong() >> random.nextInt(64);
+            long divisor = 1 + random.nextLong(1_000_000_000L);
+            BigDecimal expected = BigDecimal.valueOf(dividend).divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP);
+            assertEquals(expected.longValueExact(), Money.divideHalfUp(dividend, divisor), dividend + " / " + divisor);
+        }
+    }
+
+    @Test
+    void cashbackMatchesBigDecimalFormula() {
+        UserLevel[] levels = UserLevel.values();
+        for (int i = 0; i < CASES; i++) {
+            BigDecimal price = randomAmount();
+            UserLevel level = levels[random.nextInt(levels.length)];
+            InsurancePolicy policy = InsurancePolicy.builder()
+                    .price(price)
+                    .user(User.builder().level(level).build())
+                    .build();
+            policy.calculateCashback();
+
+            BigDecimal expected = price.multiply(BigDecimal.valueOf(level.getCashbackPercentage())
+                            .divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP))
+                    .setScale(2, RoundingMode.HALF_UP);
+            assertEquals(expected, policy.getCashback(), "cashback of " + price + " at " + level);
+        }
+    }
+
+    @Test
+    void refundMatchesBigDecimalFormula() {
+        RefundCalculator refundCalculator = new RefundCalculator();
+        for (int i = 0; i < CASES; i++) {
+            BigDecimal price = randomAmount();
+            long totalDays = 1 + random.nextInt(1100);
+            long daysSinceActivation = random.nextInt((int) totalDays + 30);
+
+            BigDecimal expected = legacyRefund(price, totalDays, daysSinceActivation);
+            assertEquals(expected, refundCalculator.refund(price, totalDays, daysSinceActivation, RefundCalculator.RefundTerms.DEFAULT),
+                    () -> "refund of " + price + " after " + daysSinceActivation + " of " + totalDays + " days");
+        }
+    }
+
+    @Test
+    void packageTotalMatchesBigDecimalFormula() {
+        for (int i = 0; i < CASES; i++) {
+            BigDecimal total = randomAmount();
+            int discount = random.nextInt(101);
+
+            BigDecimal discountAmount = total.multiply(BigDecimal.valueOf(discount).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP));
+            BigDecimal expected = total.subtract(discountAmount).setScale(2, RoundingMode.HALF_UP);
+            assertEquals(expected, PackagePricingService.applyDiscount(total, discount), total + " with " + discount + "% off");
+        }
+    }
+
+    /** Up to 100M rubles in kopecks; every tenth amount has five decimals, every fiftieth is negative. */
+    private BigDecimal randomAmount() {
+        BigDecimal amount = BigDecimal.valueOf(random.nextLong(10_000_000_000L), 2);
+        if (random.nextInt(10) == 0) {
+            amount = amount.add(BigDecimal.valueOf(random.nextInt(1000), 5));
+        }
+        return random.nextInt(50) == 0 ? amount.negate() : amount;
+    }
+
+    /** The cancelPolicy refund before Money: full price for 14 days, then pro rata minus a 20% fee. */
+    private static BigDecimal legacyRefund(BigDecimal price, long totalDays, long daysSinceActivation) {
+        BigDecimal refundAmount = BigDecimal.ZERO;
+        if (daysSinceActivation <= 14) {
+            refundAmount = price;
+        } else {
+            BigDecimal dailyRate = price.divide(BigDecimal.valueOf(totalDays), 10, RoundingMode.HALF_UP);
+            long remainingDays = totalDays - daysSinceActivation;
+            if (remainingDays > 0) {
+                BigDecimal proRataRefund = dailyRate.multiply(BigDecimal.valueOf(remainingDays));
+                BigDecimal adminFee = proRataRefund.multiply(new BigDecimal("0.20"));
+                refundAmount = proRataRefund.subtract(adminFee);
+            }
+        }
+        return refundAmount.max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -16,6 +16,7 @@ import InsurancePackages from './pages/InsurancePackages';
 import InsuranceClaims from './pages/InsuranceClaims';
 import CreateClaim from './pages/CreateClaim';
 import ChangePassword from './pages/ChangePassword';
+import ClaimAccount from './pages/ClaimAccount';
 import AdminPanel from './pages/AdminPanel';
 import AdminClaims from './pages/AdminClaims';
 import PrivateRoute from './components/PrivateRoute';
@@ -169,6 +170,7 @@ function App() {
                 <Route index element={<Home />} />
                 <Route path="/register" element={<Register />} />
                 <Route path="/login" element={<Login />} />
+                <Route path="/claim" element={<ClaimAccount />} />
                 <Route path="/categories" element={<InsuranceCategories />} />
                 <Route path="/insurance" element={<Navigate to="/insurance/packages" replace />} />
                 <Route path="/insurance/packages" element={<InsurancePackages />} />
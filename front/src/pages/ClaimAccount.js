@@ -0,0 +1,142 @@
+import React, { useState } from 'react';
+import {
+  Container,
+  Paper,
+  Typography,
+  TextField,
+  Button,
+  Alert,
+  Box,
+} from '@mui/material';
+import { useNavigate, useSearchParams } from 'react-router-dom';
+import api from '../utils/api';
+import { useAuth } from '../context/AuthContext';
+
+// Accounts created by an application without registration have no password. With ?token= from the mailed link
+// the owner sets one; without it they can ask for a new link.
+const ClaimAccount = () => {
+  const [searchParams] = useSearchParams();
+  const token = searchParams.get('token');
+  const [email, setEmail] = useState('');
+  const [password, setPassword] = useState('');
+  const [confirmPassword, setConfirmPassword] = useState('');
+  const [error, setError] = useState('');
+  const [message, setMessage] = useState('');
+  const navigate = useNavigate();
+  const { handleAuthenticationResponse } = useAuth();
+
+  const handleClaim = async (e) => {
+    e.preventDefault();
+    setError('');
+
+    if (password !== confirmPassword) {
+      setError('Пароли не совпадают');
+      return;
+    }
+
+    try {
+      const response = await api.post('/api/auth/claim', { token, password });
+      const { accessToken, refreshToken, ...userData } = response.data;
+      await handleAuthenticationResponse({ user: userData, accessToken, refreshToken });
+      navigate('/profile');
+    } catch (error) {
+      setError(error.response?.data?.message || 'Ссылка недействительна или устарела');
+    }
+  };
+
+  const handleRequestLink = async (e) => {
+    e.preventDefault();
+    setError('');
+    setMessage('');
+
+    try {
+      await api.post('/api/auth/claim-link', { email });
+      setMessage('Если для этого email есть личный кабинет без пароля, мы отправили на него ссылку для установки пароля');
+    } catch (error) {
+      setError(error.response?.data?.message || 'Не удалось отправить ссылку');
+    }
+  };
+
+  return (
+    <Container maxWidth="sm" sx={{ mt: 4 }}>
+      <Paper elevation={3} sx={{ p: 4 }}>
+        <Typography variant="h5" component="h1" gutterBottom>
+          Установка пароля
+        </Typography>
+
+        {error && (
+          <Alert severity="error" sx={{ mb: 2 }}>
+            {error}
+          </Alert>
+        )}
+
+        {message && (
+          <Alert severity="success" sx={{ mb: 2 }}>
+            {message}
+          </Alert>
+        )}
+
+        {token ? (
+          <Box component="form" onSubmit={handleClaim}>
+            <TextField
+              fullWidth
+              margin="normal"
+              label="Пароль"
+              type="password"
+              value={password}
+              onChange={(e) => setPassword(e.target.value)}
+              required
+              autoComplete="new-password"
+            />
+            <TextField
+              fullWidth
+              margin="normal"
+              label="Подтвердите пароль"
+              type="password"
+              value={confirmPassword}
+              onChange={(e) => setConfirmPassword(e.target.value)}
+              required
+              autoComplete="new-password"
+            />
+            <Button
+              type="submit"
+              variant="contained"
+              color="primary"
+              fullWidth
+              sx={{ mt: 3 }}
+            >
+              Установить пароль
+            </Button>
+          </Box>
+        ) : (
+          <Box component="form" onSubmit={handleRequestLink}>
+            <Typography variant="body2" color="text.secondary">
+              Если вы оформляли заявку без регистрации, укажите её email, и мы пришлём ссылку для установки пароля.
+            </Typography>
+            <TextField
+              fullWidth
+              margin="normal"
+              label="Email"
+              type="email"
+              value={email}
+              onChange={(e) => setEmail(e.target.value)}
+              required
+              autoComplete="email"
+            />
+            <Button
+              type="submit"
+              variant="contained"
+              color="primary"
+              fullWidth
+              sx={{ mt: 3 }}
+            >
+              Получить ссылку
+            </Button>
+          </Box>
+        )}
+      </Paper>
+    </Container>
+  );
+};
+
+export default ClaimAccount;
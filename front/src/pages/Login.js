@@ -102,6 +102,11 @@ const Login = () => {
             <Link href="/register" variant="body2">
               Нет аккаунта? Зарегистрируйтесь
             </Link>
+            <Box sx={{ mt: 1 }}>
+              <Link href="/claim" variant="body2">
+                Оформляли заявку без регистрации? Установите пароль
+              </Link>
+            </Box>
           </Box>
         </Paper>
       </Box>